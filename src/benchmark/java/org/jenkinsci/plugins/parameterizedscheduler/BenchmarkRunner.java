@@ -0,0 +1,29 @@
+package org.jenkinsci.plugins.parameterizedscheduler;
+
+import org.junit.Test;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs every benchmark of this package, see the {@code benchmark} profile. The report ends up in
+ * {@code target/jmh-report.json}.
+ */
+public class BenchmarkRunner {
+
+	@Test
+	public void runJmhBenchmarks() throws Exception {
+		ChainedOptionsBuilder options = new OptionsBuilder()
+				.include(getClass().getPackage().getName() + "\\.\\w+Benchmark\\.")
+				.warmupIterations(3)
+				.measurementIterations(5)
+				.forks(1)
+				.addProfiler(GCProfiler.class)
+				.shouldFailOnError(true)
+				.resultFormat(ResultFormatType.JSON)
+				.result("target/jmh-report.json");
+		new Runner(options.build()).run();
+	}
+}
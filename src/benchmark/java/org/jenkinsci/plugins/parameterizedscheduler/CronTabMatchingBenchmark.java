@@ -0,0 +1,64 @@
+package org.jenkinsci.plugins.parameterizedscheduler;
+
+import hudson.scheduler.Hash;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.List;
+import java.util.TimeZone;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One tick of matching over a synthetic set of triggers, through {@link ParameterizedCronTabList#check(Calendar)} as
+ * the scan used to and line by line against the per-tick {@link TickSnapshot}, as {@link TriggerEvaluator} does.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class CronTabMatchingBenchmark {
+
+	@Param({"100", "10000"})
+	public int triggers;
+
+	@Param({"1", "10"})
+	public int linesPerTrigger;
+
+	private final List<ParameterizedCronTabList> cronTabLists = new ArrayList<>();
+	private Calendar calendar;
+	private TickSnapshot snapshot;
+
+	@Setup
+	public void setup() {
+		for (int i = 0; i < triggers; i++) {
+			cronTabLists.add(ParameterizedCronTabList.create(Specs.spec(linesPerTrigger, 1), Hash.from("job" + i)));
+		}
+		calendar = Calendar.getInstance(TimeZone.getTimeZone("UTC"));
+		calendar.set(2024, Calendar.MARCH, 4, 10, 30, 0);
+		snapshot = TickSnapshot.of(calendar);
+	}
+
+	@Benchmark
+	public void checkCalendar(Blackhole blackhole) {
+		for (ParameterizedCronTabList cronTabList : cronTabLists) {
+			blackhole.consume(cronTabList.check(calendar));
+		}
+	}
+
+	@Benchmark
+	public void checkSnapshot(Blackhole blackhole) {
+		for (ParameterizedCronTabList cronTabList : cronTabLists) {
+			for (ParameterizedCronTab cronTab : cronTabList.getCronTabs()) {
+				blackhole.consume(cronTab.check(snapshot));
+			}
+		}
+	}
+}
@@ -0,0 +1,38 @@
+package org.jenkinsci.plugins.parameterizedscheduler;
+
+import hudson.scheduler.Hash;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link ParameterizedCronTabList#create} for specifications of growing size.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class CronTabParsingBenchmark {
+
+	@Param({"1", "100", "10000"})
+	public int lines;
+
+	private String spec;
+	private final Hash hash = Hash.from("folder/job");
+
+	@Setup
+	public void setup() {
+		spec = Specs.spec(lines, 3);
+	}
+
+	@Benchmark
+	public ParameterizedCronTabList create() {
+		return ParameterizedCronTabList.create(spec, hash);
+	}
+}
@@ -0,0 +1,38 @@
+package org.jenkinsci.plugins.parameterizedscheduler;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link ParameterParser#parse} with wide parameter maps.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ParameterParserBenchmark {
+
+	@Param({"1", "10", "100"})
+	public int parameters;
+
+	private final ParameterParser parser = new ParameterParser();
+	private String pairs;
+
+	@Setup
+	public void setup() {
+		pairs = Specs.parameters(parameters, 0);
+	}
+
+	@Benchmark
+	public Map<String, String> parse() {
+		return parser.parse(pairs);
+	}
+}
@@ -0,0 +1,98 @@
+package org.jenkinsci.plugins.parameterizedscheduler;
+
+import hudson.model.BooleanParameterDefinition;
+import hudson.model.ChoiceParameterDefinition;
+import hudson.model.FreeStyleProject;
+import hudson.model.ParameterDefinition;
+import hudson.model.ParametersDefinitionProperty;
+import hudson.model.PasswordParameterDefinition;
+import hudson.model.StringParameterDefinition;
+import hudson.model.TextParameterDefinition;
+import jenkins.benchmark.jmh.JmhBenchmarkState;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Resolving the parameter values of a due line, per parameter type, on a running Jenkins: binding the values alone,
+ * and preparing the builds of the line with the resolved values forgotten first, as after a change to the job.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ParameterValueBenchmark {
+
+	private static final int PARAMETERS = 10;
+
+	public static class JenkinsState extends JmhBenchmarkState {
+		@Param({"string", "boolean", "choice", "text", "password"})
+		public String type;
+
+		ParameterizedTimerTrigger trigger;
+		List<ParameterizedCronTab> lines;
+		final List<ParameterDefinition> definitions = new ArrayList<>();
+		final List<String> values = new ArrayList<>();
+
+		@Override
+		public void setup() throws Exception {
+			FreeStyleProject p = getJenkins().createProject(FreeStyleProject.class, "p");
+			StringBuilder pairs = new StringBuilder();
+			for (int i = 0; i < PARAMETERS; i++) {
+				String name = "param" + i;
+				definitions.add(definition(name));
+				values.add(value());
+				pairs.append(i == 0 ? "" : ";").append(name).append('=').append(value());
+			}
+			p.addProperty(new ParametersDefinitionProperty(definitions));
+			trigger = new ParameterizedTimerTrigger("* * * * *%" + pairs);
+			trigger.start(p, true);
+			lines = trigger.getCronTabList().getCronTabs();
+		}
+
+		private ParameterDefinition definition(String name) {
+			switch (type) {
+				case "boolean":
+					return new BooleanParameterDefinition(name, false, null);
+				case "choice":
+					return new ChoiceParameterDefinition(name, new String[] {"a", "b", "c"}, null);
+				case "text":
+					return new TextParameterDefinition(name, "default", null);
+				case "password":
+					return new PasswordParameterDefinition(name, "default", null);
+				default:
+					return new StringParameterDefinition(name, "default");
+			}
+		}
+
+		private String value() {
+			switch (type) {
+				case "boolean":
+					return "true";
+				case "choice":
+					return "b";
+				default:
+					return "value";
+			}
+		}
+	}
+
+	@Benchmark
+	public void bind(JenkinsState state, Blackhole blackhole) {
+		for (int i = 0; i < PARAMETERS; i++) {
+			blackhole.consume(ParameterValueBinder.bindValue(state.definitions.get(i), state.values.get(i)));
+		}
+	}
+
+	@Benchmark
+	public List<FireRequest> prepare(JenkinsState state) {
+		// otherwise every invocation but the first is a lookup of the cached values
+		state.trigger.invalidateParameterValues();
+		return state.trigger.prepare(state.lines);
+	}
+}
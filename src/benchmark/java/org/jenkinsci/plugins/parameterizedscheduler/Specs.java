@@ -0,0 +1,41 @@
+package org.jenkinsci.plugins.parameterizedscheduler;
+
+/**
+ * Synthetic schedules for the benchmarks, mixing plain, stepped, hashed and zoned lines.
+ */
+final class Specs {
+	private static final String[] CRONS = {
+			"* * * * *",
+			"*/5 * * * *",
+			"H/15 * * * *",
+			"H H(8-18) * * 1-5",
+			"0 2 * * *",
+			"30 */2 1,15 * *",
+	};
+
+	private Specs() {
+	}
+
+	/**
+	 * @param lines number of lines
+	 * @param parameters number of parameters per line
+	 */
+	static String spec(int lines, int parameters) {
+		StringBuilder spec = new StringBuilder("TZ=Europe/Paris\n");
+		for (int i = 0; i < lines; i++) {
+			spec.append(CRONS[i % CRONS.length]).append(" %").append(parameters(parameters, i)).append('\n');
+		}
+		return spec.toString();
+	}
+
+	static String parameters(int parameters, int seed) {
+		StringBuilder pairs = new StringBuilder();
+		for (int j = 0; j < parameters; j++) {
+			if (j > 0) {
+				pairs.append(';');
+			}
+			pairs.append("param").append(j).append('=').append("value").append(seed).append('-').append(j);
+		}
+		return pairs.toString();
+	}
+}
@@ -0,0 +1,223 @@
+package org.jenkinsci.plugins.parameterizedscheduler;
+
+import hudson.Extension;
+import hudson.ExtensionList;
+import hudson.model.Job;
+import jenkins.util.SystemProperties;
+import org.kohsuke.accmod.Restricted;
+import org.kohsuke.accmod.restrictions.NoExternalUse;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Caps the fires a tick hands to {@link BuildSubmitter}, as configured in {@link ParameterizedSchedulerConfiguration}.
+ * Fires over a limit wait in a FIFO backlog and go ahead of new ones on the following ticks, so a burst at a popular
+ * minute reaches the queue spread over the next minutes instead of all at once.
+ * <p>
+ * A fire over its folder's limit, or held back by {@link Backpressure}, does not hold up the fires behind it.
+ * <p>
+ * Unlike a plain FIFO, a fire of a line which still has one waiting from an earlier tick takes the place of the older
+ * one, keeping its place and its age, so a line due every minute does not pile up a build per minute while the
+ * controller is busy. Fires of one line within the same tick, like the missed minutes {@link TriggerEvaluator} catches
+ * up on, all wait. Fires which waited longer than {@link #MAX_WAIT_MINUTES} are dropped rather than started that late.
+ */
+@Extension
+@Restricted(NoExternalUse.class)
+public final class AdmissionControl {
+	private static final Logger LOGGER = Logger.getLogger(AdmissionControl.class.getName());
+
+	/**
+	 * how long a fire may wait in the backlog, older ones are dropped
+	 */
+	static final int MAX_WAIT_MINUTES = SystemProperties.getInteger(AdmissionControl.class.getName() + ".maxWaitMinutes", 60);
+
+	private final int capacity;
+	private final SchedulerMetrics metrics;
+	private final ArrayDeque<Slot> backlog = new ArrayDeque<>();
+	/**
+	 * the newest waiting slot of each line
+	 */
+	private final Map<Line, Slot> newest = new HashMap<>();
+	private volatile int depth;
+
+	public AdmissionControl() {
+		this(BuildSubmitter.CAPACITY, SchedulerMetrics.get());
+	}
+
+	AdmissionControl(int capacity, SchedulerMetrics metrics) {
+		this.capacity = capacity;
+		this.metrics = metrics;
+	}
+
+	static AdmissionControl get() {
+		return ExtensionList.lookupSingleton(AdmissionControl.class);
+	}
+
+	/**
+	 * @param fresh the fires of this tick, in the order they were due
+	 * @param pressure the load of the controller at this tick
+	 * @return what may go to the queue now, the rest is kept for the next ticks
+	 */
+	List<FireRequest> admit(List<FireRequest> fresh, AdmissionLimits limits, Backpressure pressure) {
+		return admit(fresh, limits, pressure, System.nanoTime());
+	}
+
+	/**
+	 * @param now {@link System#nanoTime()} at this tick
+	 */
+	synchronized List<FireRequest> admit(List<FireRequest> fresh, AdmissionLimits limits, Backpressure pressure, long now) {
+		if (backlog.isEmpty() && limits.isUnlimited() && pressure.isDisabled()) {
+			return fresh;
+		}
+		int dropped = 0;
+		Set<Line> thisTick = new HashSet<>();
+		for (FireRequest request : fresh) {
+			Line line = new Line(request);
+			Slot older = thisTick.add(line) ? newest.get(line) : null;
+			if (older != null) {
+				// keeps the place and the age of the fire from an earlier tick
+				request.deferred = older.request.deferred;
+				request.heldBack = older.request.heldBack;
+				older.request = request;
+				metrics.backlogSuperseded.increment();
+			} else if (backlog.size() < capacity) {
+				Slot slot = new Slot(line, request);
+				backlog.add(slot);
+				newest.put(line, slot);
+			} else {
+				dropped++;
+			}
+		}
+		if (dropped > 0) {
+			metrics.backlogDropped.add(dropped);
+			LOGGER.log(Level.WARNING, "Parameterized scheduler backlog is full ({0} waiting), dropped {1} scheduled builds",
+					new Object[] {backlog.size(), dropped});
+		}
+
+		int expired = 0;
+		long maxWait = TimeUnit.MINUTES.toNanos(MAX_WAIT_MINUTES);
+		for (Iterator<Slot> it = backlog.iterator(); it.hasNext(); ) {
+			Slot slot = it.next();
+			if (now - slot.since > maxWait) {
+				it.remove();
+				newest.remove(slot.line, slot);
+				expired++;
+			}
+		}
+		if (expired > 0) {
+			metrics.backlogExpired.add(expired);
+			LOGGER.log(Level.WARNING, "Dropped {0} scheduled builds which waited more than {1} minutes in the parameterized scheduler backlog",
+					new Object[] {expired, MAX_WAIT_MINUTES});
+		}
+
+		List<FireRequest> admitted = new ArrayList<>(Math.min(backlog.size(), limits.getPerTick()));
+		Map<String, Integer> perFolder = new HashMap<>();
+		for (Iterator<Slot> it = backlog.iterator(); it.hasNext() && admitted.size() < limits.getPerTick(); ) {
+			Slot slot = it.next();
+			FireRequest request = slot.request;
+			String folder = limits.folderOf(request.job.getFullName());
+			if (folder != null && perFolder.getOrDefault(folder, 0) >= limits.getLimit(folder)) {
+				continue;
+			}
+			BackpressurePolicy policy = pressure.check(request);
+			if (policy == BackpressurePolicy.DEFER) {
+				if (!request.heldBack) {
+					request.heldBack = true;
+					metrics.backpressureDeferred.increment();
+				}
+				continue;
+			}
+			it.remove();
+			newest.remove(slot.line, slot);
+			if (policy == BackpressurePolicy.SKIP) {
+				metrics.backpressureSkipped.increment();
+				continue;
+			}
+			if (folder != null) {
+				perFolder.merge(folder, 1, Integer::sum);
+			}
+			if (request.deferred) {
+				metrics.backlogWait.update(TimeUnit.NANOSECONDS.toMillis(now - slot.since));
+				if (!request.trigger.isLive()) {
+					// stopped or deleted while it waited
+					continue;
+				}
+			}
+			pressure.admitted(request);
+			admitted.add(request);
+		}
+		for (Slot slot : backlog) {
+			if (!slot.request.deferred) {
+				slot.request.deferred = true;
+				metrics.deferredFires.increment();
+			}
+		}
+		depth = backlog.size();
+		if (depth > 0) {
+			LOGGER.log(Level.FINE, "admitted {0} scheduled builds, {1} wait for the next minutes", new Object[] {admitted.size(), depth});
+		}
+		return admitted;
+	}
+
+	/**
+	 * @return the number of fires waiting for a later tick
+	 */
+	int getBacklog() {
+		return depth;
+	}
+
+	/**
+	 * a place in the backlog
+	 */
+	private static final class Slot {
+		private final Line line;
+		/**
+		 * {@link FireRequest#createdNanos} of the first fire which took the place
+		 */
+		private final long since;
+		private FireRequest request;
+
+		Slot(Line line, FireRequest request) {
+			this.line = line;
+			this.since = request.createdNanos;
+			this.request = request;
+		}
+	}
+
+	/**
+	 * one line of one job
+	 */
+	private static final class Line {
+		private final Job job;
+		private final ParameterizedCronTab cronTab;
+
+		Line(FireRequest request) {
+			job = request.job;
+			cronTab = request.cronTab;
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (!(o instanceof Line)) {
+				return false;
+			}
+			Line other = (Line) o;
+			return job == other.job && cronTab == other.cronTab;
+		}
+
+		@Override
+		public int hashCode() {
+			return 31 * System.identityHashCode(job) + System.identityHashCode(cronTab);
+		}
+	}
+}
@@ -0,0 +1,51 @@
+package org.jenkinsci.plugins.parameterizedscheduler;
+
+import edu.umd.cs.findbugs.annotations.CheckForNull;
+
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * How many fires one tick may hand to the queue, in total and per folder, see {@link AdmissionControl}.
+ */
+final class AdmissionLimits {
+	static final AdmissionLimits NONE = new AdmissionLimits(0, Collections.emptyMap());
+
+	private final int perTick;
+	private final Map<String, Integer> perFolder;
+
+	/**
+	 * @param perTick 0 for no limit
+	 * @param perFolder the limit of each folder, by full name, applying to everything within
+	 */
+	AdmissionLimits(int perTick, Map<String, Integer> perFolder) {
+		this.perTick = perTick > 0 ? perTick : Integer.MAX_VALUE;
+		this.perFolder = perFolder;
+	}
+
+	boolean isUnlimited() {
+		return perTick == Integer.MAX_VALUE && perFolder.isEmpty();
+	}
+
+	int getPerTick() {
+		return perTick;
+	}
+
+	/**
+	 * @return the most specific folder with a limit which holds the job, null if there is none
+	 */
+	@CheckForNull
+	String folderOf(String jobFullName) {
+		String folder = null;
+		for (String candidate : perFolder.keySet()) {
+			if (jobFullName.startsWith(candidate + "/") && (folder == null || candidate.length() > folder.length())) {
+				folder = candidate;
+			}
+		}
+		return folder;
+	}
+
+	int getLimit(String folder) {
+		return perFolder.get(folder);
+	}
+}
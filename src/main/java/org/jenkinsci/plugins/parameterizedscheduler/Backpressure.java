@@ -0,0 +1,123 @@
+package org.jenkinsci.plugins.parameterizedscheduler;
+
+import edu.umd.cs.findbugs.annotations.CheckForNull;
+import hudson.model.Computer;
+import hudson.model.Job;
+import hudson.model.Label;
+import hudson.model.Queue;
+import jenkins.model.Jenkins;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The load of the queue and the executors as one tick sees it, to hold fires back while the controller is already
+ * behind. The queue length and the idle executors of each label are looked up once per tick and then counted down as
+ * fires are let through, so a burst cannot claim the same idle executor twice.
+ * <p>
+ * Pipelines run their flyweight task on the controller, so only the queue length applies to them.
+ */
+final class Backpressure {
+	static final Backpressure NONE = new Backpressure(BackpressurePolicy.NONE, 0, 0);
+
+	private final BackpressurePolicy defaultPolicy;
+	private final int maxQueueLength;
+	private final int minIdleExecutors;
+	private int queueLength = -1;
+	/**
+	 * idle executors by label, null standing for jobs which may run anywhere
+	 */
+	private final Map<Label, Integer> idleExecutors = new HashMap<>();
+
+	/**
+	 * @param maxQueueLength 0 for no limit
+	 * @param minIdleExecutors 0 for no limit
+	 */
+	Backpressure(BackpressurePolicy defaultPolicy, int maxQueueLength, int minIdleExecutors) {
+		this.defaultPolicy = defaultPolicy;
+		this.maxQueueLength = maxQueueLength;
+		this.minIdleExecutors = minIdleExecutors;
+	}
+
+	static Backpressure of(ParameterizedSchedulerConfiguration configuration) {
+		return new Backpressure(configuration.getBackpressurePolicy(), configuration.getMaxQueueLength(),
+				configuration.getMinIdleExecutors());
+	}
+
+	/**
+	 * @return whether no fire can ever be held back, whatever the policy of its job
+	 */
+	boolean isDisabled() {
+		return maxQueueLength <= 0 && minIdleExecutors <= 0;
+	}
+
+	/**
+	 * @return what to do with the fire now, {@link BackpressurePolicy#NONE} to let it through
+	 */
+	BackpressurePolicy check(FireRequest request) {
+		BackpressurePolicy policy = request.trigger.getBackpressurePolicy();
+		if (policy == null) {
+			policy = defaultPolicy;
+		}
+		if (policy == BackpressurePolicy.NONE || isDisabled()) {
+			return BackpressurePolicy.NONE;
+		}
+		if (maxQueueLength > 0 && queueLength() >= maxQueueLength) {
+			return policy;
+		}
+		if (minIdleExecutors > 0 && takesExecutor(request.job) && idleExecutors(label(request.job)) < minIdleExecutors) {
+			return policy;
+		}
+		return BackpressurePolicy.NONE;
+	}
+
+	/**
+	 * Counts a fire that was let through against the load this tick started with.
+	 */
+	void admitted(FireRequest request) {
+		if (isDisabled()) {
+			return;
+		}
+		if (queueLength >= 0) {
+			queueLength++;
+		}
+		if (takesExecutor(request.job)) {
+			idleExecutors.computeIfPresent(label(request.job), (l, idle) -> idle - 1);
+		}
+	}
+
+	private int queueLength() {
+		if (queueLength < 0) {
+			queueLength = Jenkins.get().getQueue().getApproximateItemsQuickly().size();
+		}
+		return queueLength;
+	}
+
+	private int idleExecutors(@CheckForNull Label label) {
+		Integer idle = idleExecutors.get(label);
+		if (idle == null) {
+			idle = label != null ? label.getIdleExecutors() : idleExecutorsAnywhere();
+			idleExecutors.put(label, idle);
+		}
+		return idle;
+	}
+
+	private static int idleExecutorsAnywhere() {
+		int idle = 0;
+		for (Computer computer : Jenkins.get().getComputers()) {
+			if (computer.isOnline() && computer.isAcceptingTasks()) {
+				idle += computer.countIdle();
+			}
+		}
+		return idle;
+	}
+
+	private static boolean takesExecutor(Job job) {
+		return job instanceof Queue.Task && !(job instanceof Queue.FlyweightTask);
+	}
+
+	@CheckForNull
+	private static Label label(Job job) {
+		return ((Queue.Task) job).getAssignedLabel();
+	}
+}
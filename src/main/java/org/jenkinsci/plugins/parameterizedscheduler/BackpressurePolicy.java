@@ -0,0 +1,30 @@
+package org.jenkinsci.plugins.parameterizedscheduler;
+
+/**
+ * What to do with a fire while the queue is deeper or the executors are busier than configured in
+ * {@link ParameterizedSchedulerConfiguration}, see {@link Backpressure}.
+ */
+public enum BackpressurePolicy {
+	/**
+	 * fire regardless
+	 */
+	NONE(Messages._BackpressurePolicy_None()),
+	/**
+	 * keep the fire in the backlog until the pressure is off
+	 */
+	DEFER(Messages._BackpressurePolicy_Defer()),
+	/**
+	 * drop the fire, the line fires again at its next occurrence
+	 */
+	SKIP(Messages._BackpressurePolicy_Skip());
+
+	private final org.jvnet.localizer.Localizable displayName;
+
+	BackpressurePolicy(org.jvnet.localizer.Localizable displayName) {
+		this.displayName = displayName;
+	}
+
+	public String getDisplayName() {
+		return displayName.toString();
+	}
+}
@@ -0,0 +1,213 @@
+package org.jenkinsci.plugins.parameterizedscheduler;
+
+import hudson.Extension;
+import hudson.ExtensionList;
+import hudson.init.Terminator;
+import hudson.model.Job;
+import hudson.model.Queue;
+import hudson.security.ACL;
+import hudson.security.ACLContext;
+import hudson.util.DaemonThreadFactory;
+import hudson.util.NamedThreadFactory;
+import jenkins.util.SystemProperties;
+import org.kohsuke.accmod.Restricted;
+import org.kohsuke.accmod.restrictions.NoExternalUse;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Takes the {@link FireRequest}s of a tick off the tick thread. Requests wait in a bounded queue and a dedicated thread
+ * schedules them in batches, taking the {@link Queue} lock once per batch rather than once per build, so a burst of
+ * fires no longer stalls the tick behind queue maintenance. A batch never splits the requests of one job.
+ * <p>
+ * When the queue is full further requests are rejected and counted, which is the backpressure operators can watch.
+ */
+@Extension
+@Restricted(NoExternalUse.class)
+public final class BuildSubmitter {
+	private static final Logger LOGGER = Logger.getLogger(BuildSubmitter.class.getName());
+
+	static final int CAPACITY = SystemProperties.getInteger(BuildSubmitter.class.getName() + ".capacity", 10_000);
+	static final int BATCH_SIZE = SystemProperties.getInteger(BuildSubmitter.class.getName() + ".batchSize", 100);
+
+	private final BlockingQueue<FireRequest> pending = new ArrayBlockingQueue<>(CAPACITY);
+	private final AtomicBoolean draining = new AtomicBoolean();
+	private final ExecutorService executor = Executors.newSingleThreadExecutor(
+			new NamedThreadFactory(new DaemonThreadFactory(), "ParameterizedScheduler submitter"));
+
+	private final AtomicLong submitted = new AtomicLong();
+	private final AtomicLong nullSubmissions = new AtomicLong();
+	private final AtomicLong rejected = new AtomicLong();
+	private final AtomicLong batches = new AtomicLong();
+
+	public BuildSubmitter() {
+	}
+
+	static BuildSubmitter get() {
+		return ExtensionList.lookupSingleton(BuildSubmitter.class);
+	}
+
+	@Terminator
+	public static void shutdown() {
+		// requests still pending are dropped, as the builds of a tick that never ran would be
+		get().executor.shutdownNow();
+	}
+
+	/**
+	 * Queues the requests and makes sure the submitter thread picks them up. Never blocks.
+	 */
+	void submitAll(List<FireRequest> requests) {
+		int dropped = 0;
+		for (FireRequest request : requests) {
+			if (!pending.offer(request)) {
+				dropped++;
+			}
+		}
+		if (dropped > 0) {
+			rejected.addAndGet(dropped);
+			LOGGER.log(Level.WARNING, "Build submission queue is full ({0} pending), dropped {1} scheduled builds",
+					new Object[] {pending.size(), dropped});
+		}
+		if (!pending.isEmpty() && draining.compareAndSet(false, true)) {
+			executor.execute(this::drain);
+		}
+	}
+
+	/**
+	 * Submits the pending requests. The submitter thread runs this after {@link #submitAll}, a direct call waits for a
+	 * drain already in progress and returns once everything queued before it has been submitted.
+	 */
+	synchronized void drain() {
+		int locks = 0;
+		try (ACLContext ignored = ACL.as2(ACL.SYSTEM2)) {
+			List<FireRequest> batch = new ArrayList<>(BATCH_SIZE);
+			while (true) {
+				batch.clear();
+				pending.drainTo(batch, BATCH_SIZE);
+				completeJob(batch);
+				if (batch.isEmpty()) {
+					SchedulerMetrics.get().queueLocksPerDrain.update(locks);
+					locks = 0;
+					draining.set(false);
+					// a request may have come in after drainTo, and submitAll saw draining still set
+					if (pending.isEmpty() || !draining.compareAndSet(false, true)) {
+						return;
+					}
+					continue;
+				}
+				batches.incrementAndGet();
+				locks++;
+				Queue.withLock(() -> batch.forEach(this::submit));
+			}
+		} catch (Throwable e) {
+			draining.set(false);
+			LOGGER.log(Level.WARNING, "Build submission failed", e);
+		}
+	}
+
+	/**
+	 * Extends a batch cut in the middle of a job with the rest of that job's requests, which are queued next to each
+	 * other, so all the builds a job asks for in a tick go into the queue under one lock.
+	 */
+	private void completeJob(List<FireRequest> batch) {
+		if (batch.isEmpty()) {
+			return;
+		}
+		Job last = batch.get(batch.size() - 1).job;
+		FireRequest next;
+		while ((next = pending.peek()) != null && next.job == last) {
+			batch.add(pending.poll());
+		}
+	}
+
+	private void submit(FireRequest request) {
+		SchedulerMetrics metrics = SchedulerMetrics.get();
+		try {
+			if (!checkOverlap(request)) {
+				metrics.overlapSkipped.increment();
+				return;
+			}
+			long start = System.nanoTime();
+			Queue.Item item = request.submit();
+			long end = System.nanoTime();
+			metrics.scheduleLatency.update(SchedulerMetrics.micros(end - start));
+			metrics.fireToQueueLatency.update(SchedulerMetrics.micros(end - request.createdNanos));
+			if (item == null) {
+				// refused by the queue, e.g. a QueueDecisionHandler or a disabled job
+				nullSubmissions.incrementAndGet();
+			} else {
+				submitted.incrementAndGet();
+			}
+		} catch (RuntimeException e) {
+			LOGGER.log(Level.WARNING, "Failed to schedule a build of " + request.job.getFullName(), e);
+		}
+	}
+
+	/**
+	 * Applies the {@link OverlapPolicy} of the request's line, under the queue lock so that what the index says is what
+	 * the queue holds.
+	 *
+	 * @return whether to go ahead with the request
+	 */
+	private boolean checkOverlap(FireRequest request) {
+		OverlapPolicy policy = request.cronTab.getOverlapPolicy();
+		if (policy == OverlapPolicy.ALLOW) {
+			return true;
+		}
+		ParameterizedTimerTriggerCause cause = request.causeAction.findCause(ParameterizedTimerTriggerCause.class);
+		String parameters = cause == null ? null : cause.getParameters();
+		if (parameters == null) {
+			return true;
+		}
+		InFlightIndex index = InFlightIndex.get();
+		switch (policy) {
+			case SKIP_IF_RUNNING:
+				return !index.isRunning(request.job, parameters) && !index.isQueued(request.job, parameters);
+			case SKIP_IF_QUEUED:
+				return !index.isQueued(request.job, parameters);
+			case SUPERSEDE_QUEUED:
+				Queue queue = Queue.getInstance();
+				for (long id : index.getQueued(request.job, parameters)) {
+					Queue.Item item = queue.getItem(id);
+					if (item != null && queue.cancel(item)) {
+						SchedulerMetrics.get().overlapSuperseded.increment();
+					}
+				}
+				return true;
+			default:
+				return true;
+		}
+	}
+
+	/**
+	 * @return the number of requests waiting to be submitted
+	 */
+	int getPending() {
+		return pending.size();
+	}
+
+	long getSubmitted() {
+		return submitted.get();
+	}
+
+	long getNullSubmissions() {
+		return nullSubmissions.get();
+	}
+
+	long getRejected() {
+		return rejected.get();
+	}
+
+	long getBatches() {
+		return batches.get();
+	}
+}
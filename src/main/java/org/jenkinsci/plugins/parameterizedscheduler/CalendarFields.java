@@ -0,0 +1,35 @@
+package org.jenkinsci.plugins.parameterizedscheduler;
+
+import java.util.Calendar;
+import java.util.TimeZone;
+
+/**
+ * The calendar fields a {@link CronMask} looks at, for one instant in one time zone.
+ */
+final class CalendarFields {
+	final int minute;
+	final int hour;
+	final int dayOfMonth;
+	/**
+	 * 1-12
+	 */
+	final int month;
+	/**
+	 * 0-6, Sunday being 0
+	 */
+	final int dayOfWeek;
+
+	private CalendarFields(Calendar calendar) {
+		minute = calendar.get(Calendar.MINUTE);
+		hour = calendar.get(Calendar.HOUR_OF_DAY);
+		dayOfMonth = calendar.get(Calendar.DAY_OF_MONTH);
+		month = calendar.get(Calendar.MONTH) + 1;
+		dayOfWeek = calendar.get(Calendar.DAY_OF_WEEK) - 1;
+	}
+
+	static CalendarFields of(long millis, TimeZone timeZone) {
+		Calendar calendar = Calendar.getInstance(timeZone);
+		calendar.setTimeInMillis(millis);
+		return new CalendarFields(calendar);
+	}
+}
@@ -1,15 +1,11 @@
 package org.jenkinsci.plugins.parameterizedscheduler;
 
 import hudson.Extension;
-import hudson.model.AbstractProject;
 import hudson.model.AperiodicWork;
-import hudson.triggers.Trigger;
-import jenkins.model.Jenkins;
-import org.jenkinsci.plugins.workflow.job.WorkflowJob;
 
-import java.util.Calendar;
-import java.util.Collection;
-import java.util.GregorianCalendar;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -20,6 +16,15 @@ public class Cron extends AperiodicWork {
 	// time constants
 	protected static final long MIN = 1000 * 60;
 
+	/**
+	 * {@link System#nanoTime()} the next tick is due at, 0 if none was scheduled
+	 */
+	private static volatile long scheduledNanos;
+	/**
+	 * how late the last tick ran compared with when it was scheduled, in milliseconds
+	 */
+	private static volatile long lastLateness;
+
 	@Override
 	public AperiodicWork getNewInstance() {
 		return new Cron();
@@ -30,41 +35,64 @@ public class Cron extends AperiodicWork {
 		return getInitialDelay();
 	}
 
+	/**
+	 * The delay to the start of the next minute, to the millisecond. The time the tick is expected is kept on the
+	 * monotonic clock so that lateness can be measured however the wall clock moves.
+	 */
 	@Override
 	public long getInitialDelay() {
-		return MIN - (Calendar.getInstance().get(Calendar.SECOND) * 1000);
+		long delay = MIN - System.currentTimeMillis() % MIN;
+		scheduledNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(delay);
+		return delay;
+	}
+
+	static long getLastLateness() {
+		return lastLateness;
 	}
 
 	@Override
 	protected void doAperiodicRun() {
-		Jenkins instance = Jenkins.get();
-
-		for (AbstractProject<?, ?> project : instance.allItems(AbstractProject.class)) {
-			checkTriggers(project.getName(), project.getTriggers().values(), new GregorianCalendar());
+		long start = System.nanoTime();
+		SchedulerMetrics metrics = SchedulerMetrics.get();
+		long scheduled = scheduledNanos;
+		if (scheduled != 0) {
+			metrics.tickLateness.update(SchedulerMetrics.micros(start - scheduled));
+			lastLateness = TimeUnit.NANOSECONDS.toMillis(start - scheduled);
+			LOGGER.log(lastLateness > TimeUnit.SECONDS.toMillis(10) ? Level.INFO : Level.FINE,
+					"parameterized scheduler tick ran {0} ms late", lastLateness);
 		}
 
-		for (WorkflowJob workflowJob : instance.allItems(WorkflowJob.class)) {
-			checkTriggers(workflowJob.getName(), workflowJob.getTriggers().values(), new GregorianCalendar());
+		// one instant for the whole tick, so every job sees the same minute however long the tick takes
+		TickSnapshot snapshot = TickSnapshot.now();
+		TriggerRegistry registry = TriggerRegistry.get();
+		long minute = snapshot.getMinute();
+		long lastEvaluated = registry.markEvaluated(minute);
+		if (lastEvaluated >= 0 && minute > lastEvaluated + 1) {
+			metrics.missedMinutes.add(minute - lastEvaluated - 1);
+			LOGGER.log(Level.WARNING, "Parameterized scheduler did not evaluate the last {0} minute(s), catching up with policy {1}",
+					new Object[] {minute - lastEvaluated - 1, TriggerEvaluator.MISSED_MINUTE_POLICY});
 		}
-	}
-
-	private void checkTriggers(String projectName, Collection<Trigger<?>> triggers, Calendar calendar) {
-
-		for (Trigger<?> trigger : triggers) {
-			if (trigger instanceof ParameterizedTimerTrigger) {
-				LOGGER.log(Level.FINE, "cron checking {0}", projectName);
-				ParameterizedTimerTrigger ptTrigger = (ParameterizedTimerTrigger) trigger;
-
-				try {
-					ptTrigger.checkCronTabsAndRun(calendar);
-				} catch (Throwable e) {
-					// t.run() is a plugin, and some of them throw RuntimeException and other things.
-					// don't let that cancel the polling activity. report and move on.
-					LOGGER.log(Level.WARNING,
-							trigger.getClass().getName() + ".run() failed for " + projectName, e);
-				}
-			}
+		// whatever the background compilation has not got to yet, e.g. during boot
+		int compiled = registry.compilePending();
+		if (compiled > 0) {
+			metrics.onDemandCompilations.add(compiled);
+			LOGGER.log(Level.FINE, "compiled {0} parameterized schedules on demand", compiled);
 		}
+		Map<ParameterizedTimerTrigger, List<ScheduledLine>> due = registry.takeDue(minute);
+		List<FireRequest> requests;
+		try {
+			requests = TriggerEvaluator.evaluate(due, snapshot, lastEvaluated);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return;
+		} finally {
+			registry.putBack(due.values());
+		}
+
+		ParameterizedSchedulerConfiguration configuration = ParameterizedSchedulerConfiguration.get();
+		BuildSubmitter.get().submitAll(AdmissionControl.get().admit(requests, configuration.getLimits(), Backpressure.of(configuration)));
+		metrics.linesMatched.update(requests.size());
+		metrics.tickDuration.update(SchedulerMetrics.micros(System.nanoTime() - start));
 	}
 
 }
@@ -0,0 +1,290 @@
+package org.jenkinsci.plugins.parameterizedscheduler;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.Interner;
+import com.google.common.collect.Interners;
+import edu.umd.cs.findbugs.annotations.CheckForNull;
+import hudson.scheduler.CronTab;
+import hudson.scheduler.RareOrImpossibleDateException;
+
+import java.time.LocalDate;
+import java.time.Month;
+import java.time.YearMonth;
+import java.util.Calendar;
+import java.util.GregorianCalendar;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.TimeZone;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * A {@link CronTab} compiled down to one bitmask per calendar field, so that matching a minute is a handful of bit
+ * tests instead of a walk through core's matcher. {@code H} has already been expanded by the time the masks are read,
+ * and the spec's time zone is kept alongside.
+ * <p>
+ * The masks are worked out through {@link CronTab#check(Calendar)} alone: a line matches a minute when each of its
+ * five fields does, so starting from one minute the line fires at, changing a single field at a time tells which of
+ * its values match. Lines which do not fire in the foreseeable future get no mask and fall back to
+ * {@link CronTab#check(Calendar)}.
+ */
+final class CronMask {
+	private static final Logger LOGGER = Logger.getLogger(CronMask.class.getName());
+
+	/**
+	 * lines with the same schedule share one mask
+	 */
+	private static final Interner<CronMask> MASKS = Interners.newWeakInterner();
+	/**
+	 * the masks of the schedules shared through {@link ParameterizedCronTab}, worked out once per instance
+	 */
+	private static final Cache<CronTab, Optional<CronMask>> PROBED = CacheBuilder.newBuilder().weakKeys().build();
+
+	private static final TimeZone UTC = TimeZone.getTimeZone("UTC");
+	/**
+	 * 2000-01-01, where the search for a first match starts
+	 */
+	private static final long PROBE_START = 946_684_800_000L;
+	/**
+	 * every day of the year falls on every day of the week within this many years, the 29th of February included
+	 */
+	private static final int PROBE_YEARS = 56;
+
+	private final long minutes;
+	private final long hours;
+	private final long daysOfMonth;
+	private final long months;
+	private final long daysOfWeek;
+	@CheckForNull
+	private final TimeZone timeZone;
+
+	CronMask(long minutes, long hours, long daysOfMonth, long months, long daysOfWeek, @CheckForNull TimeZone timeZone) {
+		this.minutes = minutes;
+		this.hours = hours;
+		this.daysOfMonth = daysOfMonth;
+		this.months = months;
+		this.daysOfWeek = daysOfWeek;
+		this.timeZone = timeZone;
+	}
+
+	/**
+	 * @return the compiled masks, or null if the line has a time zone or does not fire in the foreseeable future
+	 */
+	@CheckForNull
+	static CronMask compile(CronTab cronTab) {
+		return cronTab.getTimeZone() == null ? compile(cronTab, cronTab) : null;
+	}
+
+	/**
+	 * @param fields the same schedule without a time zone, the masks are read from it so that no minute is skipped or
+	 * repeated by a daylight saving change
+	 * @return the compiled masks, or null if the line does not fire in the foreseeable future
+	 */
+	@CheckForNull
+	static CronMask compile(CronTab cronTab, CronTab fields) {
+		Optional<CronMask> probed = PROBED.getIfPresent(fields);
+		if (probed == null) {
+			probed = Optional.ofNullable(probe(fields));
+			PROBED.put(fields, probed);
+		}
+		return probed.map(mask -> MASKS.intern(new CronMask(mask.minutes, mask.hours, mask.daysOfMonth, mask.months,
+				mask.daysOfWeek, cronTab.getTimeZone()))).orElse(null);
+	}
+
+	@CheckForNull
+	private static CronMask probe(CronTab fields) {
+		Calendar calendar = new GregorianCalendar(UTC, Locale.ROOT);
+		calendar.setTimeInMillis(PROBE_START);
+		Calendar first;
+		try {
+			first = fields.ceil(calendar);
+		} catch (RareOrImpossibleDateException e) {
+			LOGGER.log(Level.FINE, "Not compiling {0}, it does not fire in the foreseeable future", fields);
+			return null;
+		}
+		Probe probe = new Probe(fields, first);
+		LocalDate day = probe.day;
+
+		long minutes = 0;
+		for (int minute = 0; minute < 60; minute++) {
+			minutes |= probe.at(day, probe.hour, minute) ? 1L << minute : 0;
+		}
+		long hours = 0;
+		for (int hour = 0; hour < 24; hour++) {
+			hours |= probe.at(day, hour, probe.minute) ? 1L << hour : 0;
+		}
+		long daysOfWeek = 0;
+		for (int dayOfWeek = 0; dayOfWeek < 7; dayOfWeek++) {
+			daysOfWeek |= probe.at(probe.find(day.getMonthValue(), day.getDayOfMonth(), dayOfWeek)) ? 1L << dayOfWeek : 0;
+		}
+		// the months which have the day of the first match, then the days of the month of the first match
+		long months = 0;
+		for (int month = 1; month <= 12; month++) {
+			months |= probe.at(probe.find(month, day.getDayOfMonth(), probe.dayOfWeek)) ? 1L << month : 0;
+		}
+		long daysOfMonth = 0;
+		for (int dayOfMonth = 1; dayOfMonth <= 31; dayOfMonth++) {
+			daysOfMonth |= probe.at(probe.find(day.getMonthValue(), dayOfMonth, probe.dayOfWeek)) ? 1L << dayOfMonth : 0;
+		}
+		// the shorter months, through any matching day they have, then the longer days, through any matching month
+		for (int month = 1; month <= 12; month++) {
+			if (day.getDayOfMonth() > Month.of(month).maxLength()) {
+				LocalDate date = probe.find(month, daysOfMonth);
+				months |= probe.at(date) ? 1L << month : 0;
+			}
+		}
+		for (int dayOfMonth = Month.of(day.getMonthValue()).maxLength() + 1; dayOfMonth <= 31; dayOfMonth++) {
+			for (long bits = months; bits != 0; bits &= bits - 1) {
+				int month = Long.numberOfTrailingZeros(bits);
+				if (dayOfMonth <= Month.of(month).maxLength()) {
+					daysOfMonth |= probe.at(probe.find(month, dayOfMonth, probe.dayOfWeek)) ? 1L << dayOfMonth : 0;
+					break;
+				}
+			}
+		}
+		return new CronMask(minutes, hours, daysOfMonth, months, daysOfWeek, null);
+	}
+
+	/**
+	 * Checks minutes which differ from a known match in a single field.
+	 */
+	private static final class Probe {
+		final CronTab fields;
+		final Calendar calendar;
+		final LocalDate day;
+		final int hour;
+		final int minute;
+		/**
+		 * 0-6, Sunday being 0
+		 */
+		final int dayOfWeek;
+
+		Probe(CronTab fields, Calendar match) {
+			this.fields = fields;
+			calendar = (Calendar) match.clone();
+			day = LocalDate.of(match.get(Calendar.YEAR), match.get(Calendar.MONTH) + 1, match.get(Calendar.DAY_OF_MONTH));
+			hour = match.get(Calendar.HOUR_OF_DAY);
+			minute = match.get(Calendar.MINUTE);
+			dayOfWeek = dayOfWeek(day);
+		}
+
+		boolean at(@CheckForNull LocalDate date) {
+			return date != null && at(date, hour, minute);
+		}
+
+		boolean at(LocalDate date, int hour, int minute) {
+			calendar.clear();
+			calendar.set(date.getYear(), date.getMonthValue() - 1, date.getDayOfMonth(), hour, minute);
+			return fields.check(calendar);
+		}
+
+		/**
+		 * @return a day of the month with the day of the week of the known match, null if there is none
+		 */
+		@CheckForNull
+		LocalDate find(int month, int dayOfMonth, int dayOfWeek) {
+			for (int year = day.getYear(); year < day.getYear() + PROBE_YEARS; year++) {
+				if (dayOfMonth <= YearMonth.of(year, month).lengthOfMonth()) {
+					LocalDate date = LocalDate.of(year, month, dayOfMonth);
+					if (dayOfWeek(date) == dayOfWeek) {
+						return date;
+					}
+				}
+			}
+			return null;
+		}
+
+		/**
+		 * @return a day of the month among the given days of the month, with the day of the week of the known match
+		 */
+		@CheckForNull
+		LocalDate find(int month, long daysOfMonth) {
+			for (long bits = daysOfMonth; bits != 0; bits &= bits - 1) {
+				int dayOfMonth = Long.numberOfTrailingZeros(bits);
+				if (dayOfMonth <= Month.of(month).maxLength()) {
+					return find(month, dayOfMonth, dayOfWeek);
+				}
+			}
+			return null;
+		}
+
+		private static int dayOfWeek(LocalDate date) {
+			return date.getDayOfWeek().getValue() % 7;
+		}
+	}
+
+	@CheckForNull
+	TimeZone getTimeZone() {
+		return timeZone;
+	}
+
+	/**
+	 * @param minute 0-59
+	 * @param hour 0-23
+	 * @param dayOfMonth 1-31
+	 * @param month 1-12
+	 * @param dayOfWeek 0-6, Sunday being 0
+	 */
+	boolean matches(int minute, int hour, int dayOfMonth, int month, int dayOfWeek) {
+		return (minutes & 1L << minute) != 0
+				&& (hours & 1L << hour) != 0
+				&& (daysOfMonth & 1L << dayOfMonth) != 0
+				&& (months & 1L << month) != 0
+				&& (daysOfWeek & 1L << dayOfWeek) != 0;
+	}
+
+	/**
+	 * @return the minutes of the hour the fields fall in which match, as a mask with bit 0 for minute 0, so a
+	 * schedule can be expanded an hour at a time
+	 */
+	long matchingMinutes(CalendarFields fields) {
+		if ((hours & 1L << fields.hour) == 0 || (daysOfMonth & 1L << fields.dayOfMonth) == 0
+				|| (months & 1L << fields.month) == 0 || (daysOfWeek & 1L << fields.dayOfWeek) == 0) {
+			return 0;
+		}
+		return minutes;
+	}
+
+	boolean matches(CalendarFields fields) {
+		return matches(fields.minute, fields.hour, fields.dayOfMonth, fields.month, fields.dayOfWeek);
+	}
+
+	/**
+	 * same as {@link CronTab#check(Calendar)}
+	 */
+	boolean matches(Calendar calendar) {
+		Calendar cal = calendar;
+		if (timeZone != null && !timeZone.getID().equals(calendar.getTimeZone().getID())) {
+			cal = Calendar.getInstance(timeZone);
+			cal.setTime(calendar.getTime());
+		}
+		return matches(cal.get(Calendar.MINUTE), cal.get(Calendar.HOUR_OF_DAY), cal.get(Calendar.DAY_OF_MONTH),
+				cal.get(Calendar.MONTH) + 1, cal.get(Calendar.DAY_OF_WEEK) - 1);
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (this == o) {
+			return true;
+		}
+		if (!(o instanceof CronMask)) {
+			return false;
+		}
+		CronMask other = (CronMask) o;
+		return minutes == other.minutes && hours == other.hours && daysOfMonth == other.daysOfMonth
+				&& months == other.months && daysOfWeek == other.daysOfWeek
+				&& Objects.equals(timeZoneId(), other.timeZoneId());
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(minutes, hours, daysOfMonth, months, daysOfWeek, timeZoneId());
+	}
+
+	@CheckForNull
+	private String timeZoneId() {
+		return timeZone == null ? null : timeZone.getID();
+	}
+}
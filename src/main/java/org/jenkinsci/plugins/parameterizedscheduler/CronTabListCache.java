@@ -0,0 +1,114 @@
+package org.jenkinsci.plugins.parameterizedscheduler;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import edu.umd.cs.findbugs.annotations.CheckForNull;
+import hudson.Extension;
+import hudson.ExtensionList;
+import hudson.scheduler.Hash;
+import jenkins.util.SystemProperties;
+import org.kohsuke.accmod.Restricted;
+import org.kohsuke.accmod.restrictions.NoExternalUse;
+
+import java.util.Objects;
+
+/**
+ * Bounded LRU cache of compiled schedules. Jobs generated from templates carry byte-identical specifications, and a
+ * {@link ParameterizedCronTabList} is immutable, so they can all share one instance instead of parsing their own.
+ * <p>
+ * The key is the specification text, which includes its {@code TZ=} line, plus the seed of the {@link Hash}. The seed
+ * only matters when a line uses {@code H} or an {@code @} alias, for any other specification it is left out so that
+ * every job shares the same entry.
+ */
+@Extension
+@Restricted(NoExternalUse.class)
+public final class CronTabListCache {
+	static final int SIZE = SystemProperties.getInteger(CronTabListCache.class.getName() + ".size", 4096);
+
+	private final Cache<Key, ParameterizedCronTabList> cache;
+
+	public CronTabListCache() {
+		this(SIZE);
+	}
+
+	CronTabListCache(int size) {
+		cache = CacheBuilder.newBuilder().maximumSize(size).recordStats().build();
+	}
+
+	static CronTabListCache get() {
+		return ExtensionList.lookupSingleton(CronTabListCache.class);
+	}
+
+	/**
+	 * @param hashSeed what {@link Hash#from} is called with, usually the full name of the job, or null for no hash
+	 * @throws IllegalArgumentException if the specification does not parse, which is never cached
+	 */
+	ParameterizedCronTabList get(String specification, @CheckForNull String hashSeed) {
+		Key key = new Key(specification, isHashed(specification) ? hashSeed : null);
+		ParameterizedCronTabList cronTabList = cache.getIfPresent(key);
+		if (cronTabList == null) {
+			cronTabList = ParameterizedCronTabList.create(specification, key.hashSeed == null ? null : Hash.from(key.hashSeed));
+			cache.put(key, cronTabList);
+		}
+		return cronTabList;
+	}
+
+	CacheStats getStats() {
+		return cache.stats();
+	}
+
+	long getSize() {
+		return cache.size();
+	}
+
+	void invalidateAll() {
+		cache.invalidateAll();
+	}
+
+	/**
+	 * Whether any line of the specification uses the hash. Errs on the side of yes, which only costs sharing.
+	 */
+	static boolean isHashed(String specification) {
+		for (String line : specification.split("\\r?\\n")) {
+			line = line.trim();
+			if (line.startsWith("#") || line.startsWith("TZ=")) {
+				continue;
+			}
+			int percent = line.indexOf('%');
+			String cron = percent == -1 ? line : line.substring(0, percent);
+			if (cron.indexOf('H') != -1 || cron.indexOf('@') != -1) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private static final class Key {
+		private final String specification;
+		@CheckForNull
+		private final String hashSeed;
+
+		Key(String specification, @CheckForNull String hashSeed) {
+			this.specification = specification;
+			this.hashSeed = hashSeed;
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (this == o) {
+				return true;
+			}
+			if (!(o instanceof Key)) {
+				return false;
+			}
+			Key key = (Key) o;
+			return specification.equals(key.specification) && Objects.equals(hashSeed, key.hashSeed);
+		}
+
+		@Override
+		public int hashCode() {
+			return 31 * specification.hashCode() + Objects.hashCode(hashSeed);
+		}
+	}
+}
@@ -5,13 +5,13 @@ import static hudson.Util.fixNull;
 import edu.umd.cs.findbugs.annotations.NonNull;
 import hudson.Extension;
 import hudson.model.Item;
-import hudson.model.AbstractProject;
 import hudson.model.Job;
 import hudson.model.ParametersDefinitionProperty;
 import hudson.triggers.TriggerDescriptor;
 import hudson.util.FormValidation;
+import hudson.util.ListBoxModel;
+import jenkins.model.ParameterizedJobMixIn;
 import org.jenkinsci.Symbol;
-import org.jenkinsci.plugins.workflow.job.WorkflowJob;
 import org.kohsuke.stapler.AncestorInPath;
 import org.kohsuke.stapler.QueryParameter;
 
@@ -30,14 +30,8 @@ public class DescriptorImpl extends TriggerDescriptor {
 	@SuppressWarnings("rawtypes")
 	@Override
 	public boolean isApplicable(Item item) {
-		boolean result = false;
-
-		if (item instanceof AbstractProject) {
-			result = ((AbstractProject) item).isParameterized();
-		} else if (item instanceof WorkflowJob) {
-			result = ((WorkflowJob) item).isParameterized();
-		}
-		return result;
+		return item instanceof ParameterizedJobMixIn.ParameterizedJob
+				&& ((ParameterizedJobMixIn.ParameterizedJob) item).isParameterized();
 	}
 
 	@NonNull
@@ -46,6 +40,15 @@ public class DescriptorImpl extends TriggerDescriptor {
 		return Messages.ParameterizedTimerTrigger_DisplayName();
 	}
 
+	public ListBoxModel doFillBackpressureItems() {
+		ListBoxModel items = new ListBoxModel();
+		items.add(Messages.BackpressurePolicy_Default(), "");
+		for (BackpressurePolicy policy : BackpressurePolicy.values()) {
+			items.add(policy.getDisplayName(), policy.name());
+		}
+		return items;
+	}
+
 	/**
 	 * Performs syntax check.
 	 */
@@ -54,8 +57,8 @@ public class DescriptorImpl extends TriggerDescriptor {
 			@AncestorInPath Job<?, ?> job) {
 		job.checkPermission(Item.CONFIGURE);
 		try {
-
-			String msg = ParameterizedCronTabList.create(fixNull(value)).checkSanity();
+			// called on every keystroke, so nothing is compiled or cached
+			String msg = ParameterizedCronTabList.validate(fixNull(value));
 			if (msg != null) {
 				return FormValidation.warning(msg);
 			}
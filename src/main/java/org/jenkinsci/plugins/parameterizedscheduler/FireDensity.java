@@ -0,0 +1,356 @@
+package org.jenkinsci.plugins.parameterizedscheduler;
+
+import edu.umd.cs.findbugs.annotations.CheckForNull;
+import hudson.model.Api;
+import hudson.model.Item;
+import hudson.model.Job;
+import jenkins.model.Jenkins;
+import jenkins.util.SystemProperties;
+import org.kohsuke.stapler.export.Exported;
+import org.kohsuke.stapler.export.ExportedBean;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TimeZone;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * The number of fires every started parameterized schedule is expected to cause in each minute of a window, so that
+ * the minutes where hundreds of jobs start at once stand out.
+ * <p>
+ * Lines are grouped by their interned {@link CronMask} and each mask is expanded an hour at a time, so the cost follows
+ * the number of distinct schedules times the hours of the window, not the number of lines times its minutes. Only
+ * lines whose masks could not be read are stepped through with {@link ParameterizedCronTab#ceil}.
+ */
+final class FireDensity {
+
+	/**
+	 * minutes with fewer expected fires are not worth reporting
+	 */
+	static final int HOT_THRESHOLD = SystemProperties.getInteger(FireDensity.class.getName() + ".hotThreshold", 10);
+	static final int MAX_HOT_MINUTES = 20;
+	static final int MAX_LINES_PER_MINUTE = 50;
+
+	private static final Pattern NUMBER = Pattern.compile("\\d+");
+
+	private final Map<CronMask, List<Line>> masked = new LinkedHashMap<>();
+	private final List<Line> unmasked = new ArrayList<>();
+	private final TimeZone defaultTimeZone;
+
+	FireDensity(TimeZone defaultTimeZone) {
+		this.defaultTimeZone = defaultTimeZone;
+	}
+
+	/**
+	 * @return the density of the schedules of the jobs the current user can read
+	 */
+	static FireDensity of(Collection<ParameterizedTimerTrigger> triggers) {
+		FireDensity density = new FireDensity(TimeZone.getDefault());
+		for (ParameterizedTimerTrigger trigger : triggers) {
+			Job job = trigger.getJob();
+			ParameterizedCronTabList cronTabList = job == null || !job.hasPermission(Item.READ) ? null : trigger.getCronTabList();
+			if (cronTabList != null) {
+				for (ParameterizedCronTab cronTab : cronTabList.getCronTabs()) {
+					density.add(job.getFullName(), cronTab);
+				}
+			}
+		}
+		return density;
+	}
+
+	void add(String job, ParameterizedCronTab cronTab) {
+		Line line = new Line(job, cronTab);
+		CronMask mask = cronTab.getCronMask();
+		if (mask == null) {
+			unmasked.add(line);
+		} else {
+			masked.computeIfAbsent(mask, m -> new ArrayList<>()).add(line);
+		}
+	}
+
+	/**
+	 * @param start minutes since the epoch, inclusive
+	 * @param minutes the length of the window
+	 */
+	Report compute(long start, int minutes) {
+		long end = start + minutes;
+		int[] fires = new int[minutes];
+		Map<String, List<HourSlot>> hoursByZone = new HashMap<>();
+		for (Map.Entry<CronMask, List<Line>> entry : masked.entrySet()) {
+			CronMask mask = entry.getKey();
+			int weight = entry.getValue().size();
+			TimeZone zone = zone(mask.getTimeZone());
+			for (HourSlot hour : hoursByZone.computeIfAbsent(zone.getID(), id -> hours(zone, start, end))) {
+				for (long bits = mask.matchingMinutes(hour.fields); bits != 0; bits &= bits - 1) {
+					long minute = hour.start + Long.numberOfTrailingZeros(bits);
+					if (minute >= start && minute < end) {
+						fires[(int) (minute - start)] += weight;
+					}
+				}
+			}
+		}
+		for (Line line : unmasked) {
+			for (long minute = line.cronTab.ceil(start); minute < end; minute = line.cronTab.ceil(minute + 1)) {
+				fires[(int) (minute - start)]++;
+			}
+		}
+		return new Report(start, fires, hotMinutes(start, fires));
+	}
+
+	private List<HotMinute> hotMinutes(long start, int[] fires) {
+		List<Integer> candidates = new ArrayList<>();
+		for (int i = 0; i < fires.length; i++) {
+			if (fires[i] >= HOT_THRESHOLD) {
+				candidates.add(i);
+			}
+		}
+		// the busiest first, the earliest among equals
+		candidates.sort((a, b) -> fires[a] != fires[b] ? Integer.compare(fires[b], fires[a]) : Integer.compare(a, b));
+		List<HotMinute> hot = new ArrayList<>();
+		for (int i : candidates.subList(0, Math.min(MAX_HOT_MINUTES, candidates.size()))) {
+			hot.add(hotMinute(start + i, fires[i]));
+		}
+		return hot;
+	}
+
+	private HotMinute hotMinute(long minute, int fires) {
+		TickSnapshot snapshot = new TickSnapshot(TimeUnit.MINUTES.toMillis(minute), defaultTimeZone);
+		List<Source> sources = new ArrayList<>();
+		for (Map.Entry<CronMask, List<Line>> entry : masked.entrySet()) {
+			CronMask mask = entry.getKey();
+			if (mask.matches(snapshot.fields(mask.getTimeZone()))) {
+				addSources(sources, entry.getValue());
+			}
+		}
+		for (Line line : unmasked) {
+			if (line.cronTab.check(snapshot)) {
+				addSources(sources, Collections.singletonList(line));
+			}
+		}
+		return new HotMinute(minute, fires, sources);
+	}
+
+	private static void addSources(List<Source> sources, List<Line> lines) {
+		for (Line line : lines) {
+			if (sources.size() >= MAX_LINES_PER_MINUTE) {
+				return;
+			}
+			String spec = line.cronTab.getCronSpec();
+			sources.add(new Source(line.job, spec, suggest(spec)));
+		}
+	}
+
+	/**
+	 * @return the local hours overlapping the window, each with the calendar fields of its first minute
+	 */
+	private static List<HourSlot> hours(TimeZone zone, long start, long end) {
+		List<HourSlot> hours = new ArrayList<>();
+		long minute = start - fieldsAt(start, zone).minute;
+		long previous = Long.MIN_VALUE;
+		while (minute < end) {
+			CalendarFields fields = fieldsAt(minute, zone);
+			if (fields.minute != 0 && minute - fields.minute > previous) {
+				// the offset changed by part of an hour
+				minute -= fields.minute;
+				fields = fieldsAt(minute, zone);
+			}
+			hours.add(new HourSlot(minute, fields));
+			previous = minute;
+			minute += 60;
+		}
+		return hours;
+	}
+
+	private static CalendarFields fieldsAt(long minute, TimeZone zone) {
+		return CalendarFields.of(TimeUnit.MINUTES.toMillis(minute), zone);
+	}
+
+	private TimeZone zone(@CheckForNull TimeZone timeZone) {
+		return timeZone != null ? timeZone : defaultTimeZone;
+	}
+
+	/**
+	 * Spreads a literal minute with {@code H}, leaving the hour and days alone so the line still runs when it was meant
+	 * to, give or take an hour.
+	 *
+	 * @return the rewritten schedule, or null if there is nothing to suggest
+	 */
+	@CheckForNull
+	static String suggest(@CheckForNull String cronSpec) {
+		if (cronSpec == null || cronSpec.indexOf('H') != -1 || cronSpec.startsWith("@")) {
+			return null;
+		}
+		String[] fields = cronSpec.trim().split("\\s+");
+		if (fields.length != 5) {
+			return null;
+		}
+		if (NUMBER.matcher(fields[0]).matches()) {
+			fields[0] = "H";
+		} else if (fields[0].startsWith("*/")) {
+			fields[0] = "H" + fields[0].substring(1);
+		} else {
+			return null;
+		}
+		return String.join(" ", fields);
+	}
+
+	private static final class Line {
+		final String job;
+		final ParameterizedCronTab cronTab;
+
+		Line(String job, ParameterizedCronTab cronTab) {
+			this.job = job;
+			this.cronTab = cronTab;
+		}
+	}
+
+	private static final class HourSlot {
+		/**
+		 * minutes since the epoch
+		 */
+		final long start;
+		final CalendarFields fields;
+
+		HourSlot(long start, CalendarFields fields) {
+			this.start = start;
+			this.fields = fields;
+		}
+	}
+
+	@ExportedBean
+	public static final class Report {
+		private final long start;
+		private final int[] fires;
+		private final List<HotMinute> hotMinutes;
+
+		Report(long start, int[] fires, List<HotMinute> hotMinutes) {
+			this.start = start;
+			this.fires = fires;
+			this.hotMinutes = hotMinutes;
+		}
+
+		public Api getApi() {
+			Jenkins.get().checkPermission(Jenkins.SYSTEM_READ);
+			return new Api(this);
+		}
+
+		/**
+		 * @return the first minute of the window
+		 */
+		@Exported
+		public String getFrom() {
+			return Instant.ofEpochMilli(TimeUnit.MINUTES.toMillis(start)).toString();
+		}
+
+		@Exported
+		public int getMinutes() {
+			return fires.length;
+		}
+
+		@Exported
+		public long getTotalFires() {
+			long total = 0;
+			for (int f : fires) {
+				total += f;
+			}
+			return total;
+		}
+
+		@Exported
+		public int getPeak() {
+			int peak = 0;
+			for (int f : fires) {
+				peak = Math.max(peak, f);
+			}
+			return peak;
+		}
+
+		@Exported
+		public double getMean() {
+			return fires.length == 0 ? 0 : (double) getTotalFires() / fires.length;
+		}
+
+		/**
+		 * @return the expected fires of each minute of the window
+		 */
+		@Exported
+		public int[] getFires() {
+			return fires.clone();
+		}
+
+		@Exported
+		public List<HotMinute> getHotMinutes() {
+			return hotMinutes;
+		}
+	}
+
+	@ExportedBean(defaultVisibility = 2)
+	public static final class HotMinute {
+		private final long minute;
+		private final int fires;
+		private final List<Source> lines;
+
+		HotMinute(long minute, int fires, List<Source> lines) {
+			this.minute = minute;
+			this.fires = fires;
+			this.lines = lines;
+		}
+
+		@Exported
+		public String getTime() {
+			return Instant.ofEpochMilli(TimeUnit.MINUTES.toMillis(minute)).toString();
+		}
+
+		@Exported
+		public int getFires() {
+			return fires;
+		}
+
+		/**
+		 * @return the lines behind the fires, at most {@link #MAX_LINES_PER_MINUTE} of them
+		 */
+		@Exported
+		public List<Source> getLines() {
+			return lines;
+		}
+	}
+
+	@ExportedBean(defaultVisibility = 3)
+	public static final class Source {
+		private final String job;
+		@CheckForNull
+		private final String schedule;
+		@CheckForNull
+		private final String suggestion;
+
+		Source(String job, @CheckForNull String schedule, @CheckForNull String suggestion) {
+			this.job = job;
+			this.schedule = schedule;
+			this.suggestion = suggestion;
+		}
+
+		@Exported
+		public String getJob() {
+			return job;
+		}
+
+		@Exported
+		@CheckForNull
+		public String getSchedule() {
+			return schedule;
+		}
+
+		@Exported
+		@CheckForNull
+		public String getSuggestion() {
+			return suggestion;
+		}
+	}
+}
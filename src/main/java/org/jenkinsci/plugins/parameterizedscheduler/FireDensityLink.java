@@ -0,0 +1,63 @@
+package org.jenkinsci.plugins.parameterizedscheduler;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+import hudson.Extension;
+import hudson.model.ManagementLink;
+import hudson.security.Permission;
+import jenkins.model.Jenkins;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Shows the minutes in which the most parameterized schedules fire at once, at {@code /manage/parameterized-scheduler-density/day}
+ * and {@code .../week}, each of which also has an {@code api/json}.
+ */
+@Extension
+public class FireDensityLink extends ManagementLink {
+
+	@Override
+	public String getIconFileName() {
+		return "symbol-analytics";
+	}
+
+	@Override
+	public String getDisplayName() {
+		return Messages.FireDensityLink_DisplayName();
+	}
+
+	@Override
+	public String getDescription() {
+		return Messages.FireDensityLink_Description();
+	}
+
+	@Override
+	public String getUrlName() {
+		return "parameterized-scheduler-density";
+	}
+
+	@NonNull
+	@Override
+	public Permission getRequiredPermission() {
+		return Jenkins.SYSTEM_READ;
+	}
+
+	@NonNull
+	@Override
+	public Category getCategory() {
+		return Category.STATUS;
+	}
+
+	public FireDensity.Report getDay() {
+		return report(1);
+	}
+
+	public FireDensity.Report getWeek() {
+		return report(7);
+	}
+
+	private static FireDensity.Report report(int days) {
+		Jenkins.get().checkPermission(Jenkins.SYSTEM_READ);
+		long now = TimeUnit.MILLISECONDS.toMinutes(System.currentTimeMillis());
+		return FireDensity.of(TriggerRegistry.get().getTriggers()).compute(now, (int) TimeUnit.DAYS.toMinutes(days));
+	}
+}
@@ -0,0 +1,62 @@
+package org.jenkinsci.plugins.parameterizedscheduler;
+
+import edu.umd.cs.findbugs.annotations.CheckForNull;
+import hudson.model.CauseAction;
+import hudson.model.Job;
+import hudson.model.ParametersAction;
+import hudson.model.Queue;
+import jenkins.model.ParameterizedJobMixIn;
+
+/**
+ * A build one line of a {@link ParameterizedTimerTrigger} asks for, with its parameter values already resolved.
+ */
+final class FireRequest {
+	final ParameterizedTimerTrigger trigger;
+	final Job job;
+	final ParameterizedCronTab cronTab;
+	final CauseAction causeAction;
+	final ParametersAction parametersAction;
+	/**
+	 * seconds into the minute the build should start at
+	 */
+	final int offset;
+	/**
+	 * {@link System#nanoTime()} the request was made at
+	 */
+	final long createdNanos = System.nanoTime();
+	/**
+	 * whether the request had to wait in the {@link AdmissionControl} backlog, only touched by it
+	 */
+	boolean deferred;
+	/**
+	 * whether {@link Backpressure} ever held the request back, only touched by {@link AdmissionControl}
+	 */
+	boolean heldBack;
+
+	FireRequest(ParameterizedTimerTrigger trigger, Job job, ParameterizedCronTab cronTab, CauseAction causeAction,
+			ParametersAction parametersAction) {
+		this(trigger, job, cronTab, causeAction, parametersAction, 0);
+	}
+
+	FireRequest(ParameterizedTimerTrigger trigger, Job job, ParameterizedCronTab cronTab, CauseAction causeAction,
+			ParametersAction parametersAction, int offset) {
+		this.trigger = trigger;
+		this.job = job;
+		this.cronTab = cronTab;
+		this.causeAction = causeAction;
+		this.parametersAction = parametersAction;
+		this.offset = offset;
+	}
+
+	@CheckForNull
+	Queue.Item submit() {
+		return ParameterizedJobMixIn.scheduleBuild2(job, quietPeriod(System.currentTimeMillis()), causeAction, parametersAction);
+	}
+
+	/**
+	 * @return the seconds left until the offset within the current minute, 0 once it has passed
+	 */
+	int quietPeriod(long now) {
+		return Math.max(0, offset - (int) (now / 1000 % 60));
+	}
+}
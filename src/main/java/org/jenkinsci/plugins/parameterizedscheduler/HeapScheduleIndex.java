@@ -0,0 +1,54 @@
+package org.jenkinsci.plugins.parameterizedscheduler;
+
+import java.util.Comparator;
+import java.util.PriorityQueue;
+import java.util.function.Consumer;
+
+/**
+ * {@link ScheduleIndex} backed by a min-heap keyed by the next fire minute.
+ * Removal is lazy: removed lines stay in the heap until they come up or until they make up half of it.
+ */
+final class HeapScheduleIndex implements ScheduleIndex {
+	private static final int MIN_COMPACTION_SIZE = 64;
+
+	private final PriorityQueue<ScheduledLine> heap = new PriorityQueue<>(Comparator.comparingLong(line -> line.minute));
+	private int removed;
+
+	@Override
+	public void add(ScheduledLine line) {
+		line.queued = true;
+		heap.add(line);
+	}
+
+	@Override
+	public void remove(ScheduledLine line) {
+		if (!line.queued) {
+			return;
+		}
+		line.queued = false;
+		removed++;
+		if (removed > MIN_COMPACTION_SIZE && removed > heap.size() / 2) {
+			heap.removeIf(l -> !l.queued);
+			removed = 0;
+		}
+	}
+
+	@Override
+	public void pollDue(long minute, Consumer<ScheduledLine> consumer) {
+		ScheduledLine head;
+		while ((head = heap.peek()) != null && head.minute <= minute) {
+			heap.poll();
+			if (head.queued) {
+				head.queued = false;
+				consumer.accept(head);
+			} else {
+				removed--;
+			}
+		}
+	}
+
+	@Override
+	public int size() {
+		return heap.size() - removed;
+	}
+}
@@ -0,0 +1,239 @@
+package org.jenkinsci.plugins.parameterizedscheduler;
+
+import edu.umd.cs.findbugs.annotations.CheckForNull;
+import hudson.Extension;
+import hudson.ExtensionList;
+import hudson.init.InitMilestone;
+import hudson.init.Initializer;
+import hudson.model.Cause;
+import hudson.model.Job;
+import hudson.model.Queue;
+import hudson.model.Run;
+import hudson.model.TaskListener;
+import hudson.model.listeners.RunListener;
+import hudson.model.queue.QueueListener;
+import org.kohsuke.accmod.Restricted;
+import org.kohsuke.accmod.restrictions.NoExternalUse;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * The builds the scheduler started which are still queued or running, by job and parameters, so that an
+ * {@link OverlapPolicy} is a map lookup rather than a walk through the queue or the build history.
+ * <p>
+ * Queue and run events keep it up to date; what was already queued or running at startup is picked up once. An item
+ * which left the queue for an executor still counts as queued until its run starts, so a line is never in neither.
+ */
+@Extension
+@Restricted(NoExternalUse.class)
+public final class InFlightIndex {
+	private final Map<Key, InFlight> builds = new HashMap<>();
+
+	public InFlightIndex() {
+	}
+
+	static InFlightIndex get() {
+		return ExtensionList.lookupSingleton(InFlightIndex.class);
+	}
+
+	synchronized boolean isQueued(Job job, String parameters) {
+		InFlight inFlight = builds.get(new Key(job, parameters));
+		return inFlight != null && !inFlight.queued.isEmpty();
+	}
+
+	synchronized boolean isRunning(Job job, String parameters) {
+		InFlight inFlight = builds.get(new Key(job, parameters));
+		return inFlight != null && !inFlight.running.isEmpty();
+	}
+
+	/**
+	 * @return the ids of the queue items waiting with these parameters
+	 */
+	synchronized List<Long> getQueued(Job job, String parameters) {
+		InFlight inFlight = builds.get(new Key(job, parameters));
+		return inFlight == null ? new ArrayList<>() : new ArrayList<>(inFlight.queued);
+	}
+
+	void queued(Queue.Item item) {
+		Key key = key(item.task, item.getCauses());
+		if (key != null) {
+			synchronized (this) {
+				builds.computeIfAbsent(key, k -> new InFlight()).queued.add(item.getId());
+			}
+		}
+	}
+
+	void left(Queue.LeftItem item) {
+		if (!item.isCancelled()) {
+			// about to start, forgotten by started(Run)
+			return;
+		}
+		Key key = key(item.task, item.getCauses());
+		if (key != null) {
+			synchronized (this) {
+				InFlight inFlight = builds.get(key);
+				if (inFlight != null) {
+					inFlight.queued.remove(item.getId());
+					forgetIfDone(key, inFlight);
+				}
+			}
+		}
+	}
+
+	void started(Run<?, ?> run) {
+		Key key = key(run.getParent(), run.getCauses());
+		if (key != null) {
+			synchronized (this) {
+				InFlight inFlight = builds.computeIfAbsent(key, k -> new InFlight());
+				inFlight.queued.remove(run.getQueueId());
+				inFlight.running.add(run.getNumber());
+			}
+		}
+	}
+
+	void finished(Run<?, ?> run) {
+		Key key = key(run.getParent(), run.getCauses());
+		if (key != null) {
+			synchronized (this) {
+				InFlight inFlight = builds.get(key);
+				if (inFlight != null) {
+					inFlight.running.remove(run.getNumber());
+					forgetIfDone(key, inFlight);
+				}
+			}
+		}
+	}
+
+	/**
+	 * @return the number of job and parameter combinations with builds in flight
+	 */
+	synchronized int size() {
+		return builds.size();
+	}
+
+	private void forgetIfDone(Key key, InFlight inFlight) {
+		if (inFlight.queued.isEmpty() && inFlight.running.isEmpty()) {
+			builds.remove(key);
+		}
+	}
+
+	@CheckForNull
+	private static Key key(Object task, List<Cause> causes) {
+		if (!(task instanceof Job)) {
+			return null;
+		}
+		for (Cause cause : causes) {
+			if (cause instanceof ParameterizedTimerTriggerCause) {
+				String parameters = ((ParameterizedTimerTriggerCause) cause).getParameters();
+				if (parameters != null) {
+					return new Key((Job) task, parameters);
+				}
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Picks up the builds still running from before a restart, which do not announce their start again. Queued items
+	 * announce themselves as the queue is loaded.
+	 */
+	@Initializer(after = InitMilestone.JOB_CONFIG_ADAPTED)
+	public static void load() {
+		InFlightIndex index = get();
+		for (ParameterizedTimerTrigger trigger : TriggerRegistry.get().getTriggers()) {
+			Job<?, ?> job = trigger.getJob();
+			Run<?, ?> run = job == null ? null : job.getLastBuild();
+			if (run != null && !run.isBuilding()) {
+				run = run.getPreviousBuildInProgress();
+			}
+			for (; run != null; run = run.getPreviousBuildInProgress()) {
+				index.started(run);
+			}
+		}
+	}
+
+	private static final class Key {
+		private final Job job;
+		/**
+		 * interned by {@link ParameterizedTimerTriggerCause}
+		 */
+		private final String parameters;
+
+		Key(Job job, String parameters) {
+			this.job = job;
+			this.parameters = parameters;
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (!(o instanceof Key)) {
+				return false;
+			}
+			Key other = (Key) o;
+			return job == other.job && parameters.equals(other.parameters);
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hash(System.identityHashCode(job), parameters);
+		}
+	}
+
+	private static final class InFlight {
+		/**
+		 * ids of the queue items
+		 */
+		final Set<Long> queued = new HashSet<>(2);
+		/**
+		 * numbers of the builds
+		 */
+		final Set<Integer> running = new HashSet<>(2);
+	}
+
+	@Extension
+	public static final class QueueTracker extends QueueListener {
+		@Override
+		public void onEnterWaiting(Queue.WaitingItem wi) {
+			get().queued(wi);
+		}
+
+		@Override
+		public void onEnterBlocked(Queue.BlockedItem bi) {
+			get().queued(bi);
+		}
+
+		@Override
+		public void onEnterBuildable(Queue.BuildableItem bi) {
+			get().queued(bi);
+		}
+
+		@Override
+		public void onLeft(Queue.LeftItem li) {
+			get().left(li);
+		}
+	}
+
+	@Extension
+	public static final class RunTracker extends RunListener<Run<?, ?>> {
+		@Override
+		public void onStarted(Run<?, ?> run, TaskListener listener) {
+			get().started(run);
+		}
+
+		@Override
+		public void onFinalized(Run<?, ?> run) {
+			get().finished(run);
+		}
+
+		@Override
+		public void onDeleted(Run<?, ?> run) {
+			get().finished(run);
+		}
+	}
+}
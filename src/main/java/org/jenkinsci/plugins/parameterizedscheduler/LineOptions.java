@@ -0,0 +1,99 @@
+package org.jenkinsci.plugins.parameterizedscheduler;
+
+import edu.umd.cs.findbugs.annotations.CheckForNull;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * The options a line may add after its cron fields, before the {@code %}, each an {@code @} token that core's aliases
+ * such as {@code @daily} can never be mistaken for:
+ * <ul>
+ * <li>{@code @+30s} starts the build that many seconds into the minute</li>
+ * <li>{@code @skipIfRunning} and the other tokens of {@link OverlapPolicy} say what to do while an earlier build of
+ * the line is still pending</li>
+ * <li>{@code @quoted} reads the parameters with quoting, see {@link ParameterParser#parse(String, int, boolean)}</li>
+ * </ul>
+ */
+final class LineOptions {
+	/**
+	 * no explicit delay, the line follows the controller-wide setting
+	 */
+	static final int NO_DELAY = -1;
+
+	private static final Pattern DELAY = Pattern.compile("@\\+(\\d{1,2})s");
+	private static final String QUOTED = "@quoted";
+
+	/**
+	 * the cron fields, without the options
+	 */
+	final String cron;
+	final int delay;
+	final OverlapPolicy overlapPolicy;
+	/**
+	 * whether the parameters may be quoted
+	 */
+	final boolean quoted;
+
+	private LineOptions(String cron, int delay, OverlapPolicy overlapPolicy, boolean quoted) {
+		this.cron = cron;
+		this.delay = delay;
+		this.overlapPolicy = overlapPolicy;
+		this.quoted = quoted;
+	}
+
+	/**
+	 * @param cronPart everything before the {@code %}, trimmed
+	 * @throws IllegalArgumentException if an option is out of range
+	 */
+	static LineOptions parse(String cronPart) {
+		String cron = cronPart;
+		int delay = NO_DELAY;
+		OverlapPolicy overlapPolicy = null;
+		boolean quoted = false;
+		while (true) {
+			int space = Math.max(cron.lastIndexOf(' '), cron.lastIndexOf('\t'));
+			if (space == -1) {
+				break;
+			}
+			String token = cron.substring(space + 1);
+			Matcher matcher = DELAY.matcher(token);
+			if (matcher.matches()) {
+				int seconds = Integer.parseInt(matcher.group(1));
+				if (seconds > 59) {
+					throw new IllegalArgumentException(Messages.LineOptions_DelayOutOfRange(token));
+				}
+				if (delay != NO_DELAY) {
+					throw new IllegalArgumentException(Messages.LineOptions_Duplicate(token));
+				}
+				delay = seconds;
+			} else if (token.equals(QUOTED)) {
+				if (quoted) {
+					throw new IllegalArgumentException(Messages.LineOptions_Duplicate(token));
+				}
+				quoted = true;
+			} else {
+				OverlapPolicy policy = overlapPolicyOf(token);
+				if (policy == null) {
+					break;
+				}
+				if (overlapPolicy != null) {
+					throw new IllegalArgumentException(Messages.LineOptions_Duplicate(token));
+				}
+				overlapPolicy = policy;
+			}
+			cron = cron.substring(0, space).trim();
+		}
+		return new LineOptions(cron, delay, overlapPolicy != null ? overlapPolicy : OverlapPolicy.ALLOW, quoted);
+	}
+
+	@CheckForNull
+	private static OverlapPolicy overlapPolicyOf(String token) {
+		for (OverlapPolicy policy : OverlapPolicy.values()) {
+			if (policy.token.equals(token)) {
+				return policy;
+			}
+		}
+		return null;
+	}
+}
@@ -0,0 +1,19 @@
+package org.jenkinsci.plugins.parameterizedscheduler;
+
+/**
+ * What to do with lines that were due in minutes no tick evaluated, e.g. because of a long GC pause.
+ */
+enum MissedMinutePolicy {
+	/**
+	 * fire once for every missed occurrence
+	 */
+	FIRE_ALL,
+	/**
+	 * fire once for a line, however many of its occurrences were missed
+	 */
+	FIRE_LATEST,
+	/**
+	 * do not fire, only log the missed occurrence
+	 */
+	SKIP
+}
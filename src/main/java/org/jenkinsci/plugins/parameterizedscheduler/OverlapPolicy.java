@@ -0,0 +1,30 @@
+package org.jenkinsci.plugins.parameterizedscheduler;
+
+/**
+ * What a line does when a build it started earlier with the same parameters is still queued or running, given as a
+ * {@link LineOptions} token. Only builds started by the scheduler count, see {@link InFlightIndex}.
+ */
+enum OverlapPolicy {
+	/**
+	 * fire regardless, the default
+	 */
+	ALLOW("@allow"),
+	/**
+	 * skip the fire while such a build is queued or running
+	 */
+	SKIP_IF_RUNNING("@skipIfRunning"),
+	/**
+	 * skip the fire while such a build is queued, a running one is fine
+	 */
+	SKIP_IF_QUEUED("@skipIfQueued"),
+	/**
+	 * cancel the queued builds and fire anew
+	 */
+	SUPERSEDE_QUEUED("@supersedeQueued");
+
+	final String token;
+
+	OverlapPolicy(String token) {
+		this.token = token;
+	}
+}
@@ -0,0 +1,125 @@
+package org.jenkinsci.plugins.parameterizedscheduler;
+
+import com.google.common.collect.Interner;
+import com.google.common.collect.Interners;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Read-only parameters of a schedule line, kept as one array of alternating names and values. Generated jobs repeat
+ * the same names and values over and over, so both are interned. Lookups scan the array, which beats hashing for the
+ * handful of parameters a line usually has; lines with more than {@link #MAX_SIZE} get a regular map.
+ */
+final class ParameterMap extends AbstractMap<String, String> {
+	static final int MAX_SIZE = 16;
+
+	private static final Interner<String> STRINGS = Interners.newWeakInterner();
+
+	private final String[] keysAndValues;
+
+	private ParameterMap(String[] keysAndValues) {
+		this.keysAndValues = keysAndValues;
+	}
+
+	/**
+	 * @param keysAndValues alternating names and values, the names must be distinct; the array is not copied
+	 * @param size the number of parameters, the first {@code 2 * size} elements are used
+	 */
+	static Map<String, String> of(String[] keysAndValues, int size) {
+		if (size == 0) {
+			return Collections.emptyMap();
+		}
+		if (size > MAX_SIZE) {
+			Map<String, String> map = new LinkedHashMap<>();
+			for (int i = 0; i < 2 * size; i += 2) {
+				map.put(STRINGS.intern(keysAndValues[i]), STRINGS.intern(keysAndValues[i + 1]));
+			}
+			return Collections.unmodifiableMap(map);
+		}
+		String[] compact = new String[2 * size];
+		for (int i = 0; i < compact.length; i++) {
+			compact[i] = STRINGS.intern(keysAndValues[i]);
+		}
+		return new ParameterMap(compact);
+	}
+
+	static Map<String, String> copyOf(Map<String, String> parameters) {
+		if (parameters instanceof ParameterMap) {
+			return parameters;
+		}
+		String[] keysAndValues = new String[2 * parameters.size()];
+		int i = 0;
+		for (Entry<String, String> entry : parameters.entrySet()) {
+			keysAndValues[i++] = entry.getKey();
+			keysAndValues[i++] = entry.getValue();
+		}
+		return of(keysAndValues, parameters.size());
+	}
+
+	@Override
+	public int size() {
+		return keysAndValues.length / 2;
+	}
+
+	@Override
+	public boolean containsKey(Object key) {
+		return indexOf(key) >= 0;
+	}
+
+	@Override
+	public String get(Object key) {
+		int i = indexOf(key);
+		return i < 0 ? null : keysAndValues[i + 1];
+	}
+
+	private int indexOf(Object key) {
+		for (int i = 0; i < keysAndValues.length; i += 2) {
+			if (keysAndValues[i].equals(key)) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * a fresh view each time, not worth a field on every line
+	 */
+	@Override
+	public Set<Entry<String, String>> entrySet() {
+		return new AbstractSet<Entry<String, String>>() {
+			@Override
+			public Iterator<Entry<String, String>> iterator() {
+				return new Iterator<Entry<String, String>>() {
+					private int i;
+
+					@Override
+					public boolean hasNext() {
+						return i < keysAndValues.length;
+					}
+
+					@Override
+					public Entry<String, String> next() {
+						if (!hasNext()) {
+							throw new NoSuchElementException();
+						}
+						Entry<String, String> entry = new SimpleImmutableEntry<>(keysAndValues[i], keysAndValues[i + 1]);
+						i += 2;
+						return entry;
+					}
+				};
+			}
+
+			@Override
+			public int size() {
+				return ParameterMap.this.size();
+			}
+		};
+	}
+}
@@ -1,10 +1,9 @@
 package org.jenkinsci.plugins.parameterizedscheduler;
 
-import com.google.common.base.Splitter;
 import edu.umd.cs.findbugs.annotations.CheckForNull;
 import hudson.model.ParametersDefinitionProperty;
-import org.apache.commons.lang.StringUtils;
 
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
@@ -15,35 +14,143 @@ public class ParameterParser {
 	 * if ever changed, documentation and messages will need to be updated as well
 	 */
 	private static final String PARAMETER_SEPARATOR = "%";
-	private static final String NAME_VALUE_SEPARATOR = "=";
-	private static final String PAIR_SEPARATOR = ";";
+	private static final char NAME_VALUE_SEPARATOR = '=';
+	private static final char PAIR_SEPARATOR = ';';
 
 	/**
-	 * Parses a string with key value pairs
+	 * Parses a string with key value pairs in a single pass, the way they always were: each pair is trimmed, the name
+	 * ends at the first {@code =} and the value is everything after it, quotes included. One trailing {@code ;} is
+	 * allowed.
 	 * @param nameValuePairFormattedString of name=value;other=value name value pairs
-	 * @return Map of key-value pairs parsed from provided string
+	 * @return Map of key-value pairs parsed from provided string, read-only and in the order given
+	 * @throws IllegalArgumentException naming the column of the first error
 	 */
 	public Map<String, String> parse(String nameValuePairFormattedString) {
-		if (StringUtils.isBlank(nameValuePairFormattedString)) {
+		return nameValuePairFormattedString == null ? Collections.emptyMap() : parse(nameValuePairFormattedString, 0, false);
+	}
+
+	/**
+	 * @param line a whole line of the specification
+	 * @param start where the parameters start in the line, errors give their column in the whole line
+	 * @param quoted for lines with the {@code @quoted} option: names and unquoted values are trimmed, and a value may
+	 * be quoted to keep its surrounding whitespace or to contain {@code ;}. Single quotes take everything up to the next
+	 * single quote literally, double quotes allow {@code \"} and {@code \\} escapes. A value which only starts with a
+	 * quote, without a matching one right before the next {@code ;} or the end, is taken as written.
+	 * @see #parse(String)
+	 */
+	Map<String, String> parse(String line, int start, boolean quoted) {
+		String s = line;
+		int end = trimEnd(s, start, s.length());
+		int i = skipWhitespace(s, start, end);
+		if (i == end) {
 			return Collections.emptyMap();
 		}
-		String clean = nameValuePairFormattedString.trim();
-		if (nameValuePairFormattedString.endsWith(PAIR_SEPARATOR)) {
-			//the default splitter message in this scenario is not user friendly, so snip a trailing semicolon
-			clean = clean.substring(0, clean.length() - 1);
+		String[] keysAndValues = new String[8];
+		int size = 0;
+		while (i < end) {
+			int keyStart = i;
+			while (i < end && s.charAt(i) != NAME_VALUE_SEPARATOR && s.charAt(i) != PAIR_SEPARATOR) {
+				i++;
+			}
+			int keyEnd = trimEnd(s, keyStart, i);
+			if (i == end || s.charAt(i) == PAIR_SEPARATOR) {
+				throw new IllegalArgumentException(keyEnd == keyStart
+						? Messages.ParameterParser_EmptyPair(column(keyStart))
+						: Messages.ParameterParser_MissingSeparator(s.substring(keyStart, keyEnd), column(keyStart)));
+			}
+			if (keyEnd == keyStart) {
+				throw new IllegalArgumentException(Messages.ParameterParser_MissingName(column(keyStart)));
+			}
+			// without quoting, whitespace before the = stays part of the name, as it always did
+			String key = s.substring(keyStart, quoted ? keyEnd : i);
+			i++;
+
+			String value = null;
+			if (quoted) {
+				i = skipWhitespace(s, i, end);
+			}
+			if (quoted && i < end && (s.charAt(i) == '"' || s.charAt(i) == '\'')) {
+				char quote = s.charAt(i);
+				int j = i + 1;
+				StringBuilder unescaped = null;
+				int chunkStart = j;
+				while (j < end && s.charAt(j) != quote) {
+					if (quote == '"' && s.charAt(j) == '\\' && j + 1 < end && (s.charAt(j + 1) == '"' || s.charAt(j + 1) == '\\')) {
+						if (unescaped == null) {
+							unescaped = new StringBuilder();
+						}
+						unescaped.append(s, chunkStart, j).append(s.charAt(j + 1));
+						j += 2;
+						chunkStart = j;
+					} else {
+						j++;
+					}
+				}
+				int next = j == end ? end : skipWhitespace(s, j + 1, end);
+				if (j < end && (next == end || s.charAt(next) == PAIR_SEPARATOR)) {
+					value = unescaped == null ? s.substring(chunkStart, j) : unescaped.append(s, chunkStart, j).toString();
+					i = next;
+				}
+			}
+			if (value == null) {
+				// not quoted, or not only quoted, leading whitespace is only kept without quoting
+				int valueStart = i;
+				while (i < end && s.charAt(i) != PAIR_SEPARATOR) {
+					i++;
+				}
+				value = s.substring(valueStart, trimEnd(s, valueStart, i));
+			}
+
+			for (int k = 0; k < 2 * size; k += 2) {
+				if (keysAndValues[k].equals(key)) {
+					throw new IllegalArgumentException(Messages.ParameterParser_DuplicateKey(key, column(keyStart)));
+				}
+			}
+			if (2 * size == keysAndValues.length) {
+				keysAndValues = Arrays.copyOf(keysAndValues, 2 * keysAndValues.length);
+			}
+			keysAndValues[2 * size] = key;
+			keysAndValues[2 * size + 1] = value;
+			size++;
+			if (i < end) {
+				// at the separator, a trailing one is fine
+				i = skipWhitespace(s, i + 1, end);
+			}
+		}
+		return ParameterMap.of(keysAndValues, size);
+	}
+
+	private static int skipWhitespace(String s, int from, int end) {
+		int i = from;
+		while (i < end && Character.isWhitespace(s.charAt(i))) {
+			i++;
 		}
-		return Splitter.on(PAIR_SEPARATOR).trimResults().withKeyValueSeparator(Splitter.on(NAME_VALUE_SEPARATOR).limit(2)).split(clean);
+		return i;
+	}
+
+	private static int trimEnd(String s, int start, int end) {
+		int i = end;
+		while (i > start && Character.isWhitespace(s.charAt(i - 1))) {
+			i--;
+		}
+		return i;
+	}
+
+	private static int column(int index) {
+		return index + 1;
 	}
 
 	@CheckForNull
 	public String checkSanity(String cronTabSpec, ParametersDefinitionProperty parametersDefinitionProperty) {
 		String[] cronTabLines = cronTabSpec.split("\\r?\\n");
 		for (String cronTabLine : cronTabLines) {
+			// the same line, and so the same columns, as when the specification is compiled
+			cronTabLine = cronTabLine.trim();
 			int idx = cronTabLine.indexOf(PARAMETER_SEPARATOR);
 			if (idx != -1 && idx + 1 < cronTabLine.length()) {
-				String split = cronTabLine.substring(idx + 1);
 				try {
-					Map<String, String> parsedParameters = parse(split);
+					boolean quoted = LineOptions.parse(cronTabLine.substring(0, idx).trim()).quoted;
+					Map<String, String> parsedParameters = parse(cronTabLine, idx + 1, quoted);
 					List<String> parameterDefinitionNames = parametersDefinitionProperty != null
 							? parametersDefinitionProperty.getParameterDefinitionNames() : Collections.emptyList();
 					List<String> parsedKeySet = parsedParameters.keySet().stream().filter(s -> !parameterDefinitionNames.contains(s)).collect(Collectors.toList());
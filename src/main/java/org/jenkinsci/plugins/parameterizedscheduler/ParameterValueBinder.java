@@ -0,0 +1,42 @@
+package org.jenkinsci.plugins.parameterizedscheduler;
+
+import edu.umd.cs.findbugs.annotations.CheckForNull;
+import hudson.ExtensionList;
+import hudson.ExtensionPoint;
+import hudson.model.ParameterDefinition;
+import hudson.model.ParameterValue;
+import org.kohsuke.stapler.StaplerRequest;
+
+/**
+ * Turns the text a schedule line gives a parameter into a {@link ParameterValue}.
+ * <p>
+ * Binders are asked in ordinal order and the first applicable one wins. Definitions no binder handles are given a
+ * {@link ParameterizedStaplerRequest} through {@link ParameterDefinition#createValue(StaplerRequest)}, like every
+ * definition used to be, so plugins only need a binder when that stub is not good enough or too slow.
+ */
+public abstract class ParameterValueBinder implements ExtensionPoint {
+
+	/**
+	 * @return whether this binder knows how to bind values of the given definition
+	 */
+	public abstract boolean isApplicable(ParameterDefinition definition);
+
+	/**
+	 * @param definition a definition this binder is {@link #isApplicable applicable} to
+	 * @param value the text from the schedule line
+	 * @return the value, or null if none can be created, which leaves the parameter out of the build
+	 * @throws IllegalArgumentException if the text is not a valid value
+	 */
+	@CheckForNull
+	public abstract ParameterValue bind(ParameterDefinition definition, String value);
+
+	@CheckForNull
+	static ParameterValue bindValue(ParameterDefinition definition, String value) {
+		for (ParameterValueBinder binder : ExtensionList.lookup(ParameterValueBinder.class)) {
+			if (binder.isApplicable(definition)) {
+				return binder.bind(definition, value);
+			}
+		}
+		return definition.createValue(new ParameterizedStaplerRequest(value));
+	}
+}
@@ -0,0 +1,27 @@
+package org.jenkinsci.plugins.parameterizedscheduler;
+
+import hudson.Extension;
+import hudson.XmlFile;
+import hudson.model.Job;
+import hudson.model.Saveable;
+import hudson.model.listeners.SaveableListener;
+
+/**
+ * Drops the parameter values {@link ParameterizedTimerTrigger} resolved for a job whenever the job is saved, which
+ * covers changes to its parameter definitions made through the API rather than the configuration form.
+ */
+@Extension
+public class ParameterValueCacheInvalidator extends SaveableListener {
+
+	@Override
+	public void onChange(Saveable o, XmlFile file) {
+		if (!(o instanceof Job)) {
+			return;
+		}
+		for (ParameterizedTimerTrigger trigger : TriggerRegistry.get().getTriggers()) {
+			if (trigger.getJob() == o) {
+				trigger.invalidateParameterValues();
+			}
+		}
+	}
+}
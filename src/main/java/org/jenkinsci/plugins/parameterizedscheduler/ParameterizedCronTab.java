@@ -2,12 +2,19 @@ package org.jenkinsci.plugins.parameterizedscheduler;
 
 import java.util.Calendar;
 import java.util.Collections;
-import java.util.HashMap;
+import java.util.GregorianCalendar;
 import java.util.Map;
+import java.util.TimeZone;
+import java.util.concurrent.TimeUnit;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.Interner;
+import com.google.common.collect.Interners;
+import edu.umd.cs.findbugs.annotations.CheckForNull;
 import hudson.scheduler.CronTab;
-import hudson.scheduler.CronTabList;
 import hudson.scheduler.Hash;
+import hudson.scheduler.RareOrImpossibleDateException;
 
 /**
  * this is a copy of {@link CronTab} with added parameters map support
@@ -16,16 +23,53 @@ import hudson.scheduler.Hash;
  */
 public class ParameterizedCronTab {
 
+	/**
+	 * returned by {@link #ceil(long)} for lines that will not fire in the foreseeable future
+	 */
+	public static final long NEVER = Long.MAX_VALUE;
+
+	private static final Cache<String, CronTab> SHARED = CacheBuilder.newBuilder().weakValues().build();
+	/**
+	 * most jobs repeat a handful of schedules
+	 */
+	private static final Interner<String> SPECS = Interners.newWeakInterner();
+
 	private final Map<String, String> parameterValues;
-	private final CronTabList cronTabList;
+	private final CronTab cronTab;
+	@CheckForNull
+	private final CronMask cronMask;
+	@CheckForNull
+	private final String cronSpec;
+	/**
+	 * seconds into the minute to start the build at, {@link LineOptions#NO_DELAY} if the line does not say
+	 */
+	private final int delay;
+	private final OverlapPolicy overlapPolicy;
 
 	/**
 	 * @param cronTab the crontab to use as a template
 	 * @param parameters the parameters in name=value key pairings
 	 */
 	public ParameterizedCronTab(CronTab cronTab, Map<String, String> parameters) {
-		cronTabList = new CronTabList(Collections.singleton(cronTab));
-		parameterValues = parameters;
+		this.cronTab = cronTab;
+		cronMask = CronMask.compile(cronTab);
+		parameterValues = ParameterMap.copyOf(parameters);
+		cronSpec = null;
+		delay = LineOptions.NO_DELAY;
+		overlapPolicy = OverlapPolicy.ALLOW;
+	}
+
+	/**
+	 * @param cronMask the masks of the line, null to always go through the {@link CronTab}
+	 * @param options the cron fields of the line, as written, and its options
+	 */
+	ParameterizedCronTab(CronTab cronTab, @CheckForNull CronMask cronMask, Map<String, String> parameters, LineOptions options) {
+		this.cronTab = cronTab;
+		this.cronMask = cronMask;
+		parameterValues = ParameterMap.copyOf(parameters);
+		cronSpec = SPECS.intern(options.cron);
+		delay = options.delay;
+		overlapPolicy = options.overlapPolicy;
 	}
 
 	/**
@@ -34,30 +78,123 @@ public class ParameterizedCronTab {
 	 *      of not spreading it out at all.
 	 */
 	public static ParameterizedCronTab create(String line, int lineNumber, Hash hash, String timezone) {
-		Map<String, String> parameters = new HashMap<>();
 		int firstPercentIdx = line.indexOf("%");
 		if(firstPercentIdx != -1) {
-			String cronLinePart = line.substring(0, firstPercentIdx).trim();
-			String paramsLinePart = line.substring(firstPercentIdx + 1).trim();
-			CronTab cronTab = new CronTab(cronLinePart, lineNumber, hash, timezone);
-			parameters = new ParameterParser().parse(paramsLinePart);
-			return new ParameterizedCronTab(cronTab, parameters);
+			LineOptions options = LineOptions.parse(line.substring(0, firstPercentIdx).trim());
+			CronTab cronTab = cronTab(options.cron, lineNumber, hash, timezone);
+			return new ParameterizedCronTab(cronTab, cronMask(cronTab, options.cron, lineNumber, hash), new ParameterParser().parse(line, firstPercentIdx + 1, options.quoted), options);
 		} else {
-			CronTab cronTab = new CronTab(line, lineNumber, hash, timezone);
-			return new ParameterizedCronTab(cronTab, parameters);
+			LineOptions options = LineOptions.parse(line);
+			CronTab cronTab = cronTab(options.cron, lineNumber, hash, timezone);
+			return new ParameterizedCronTab(cronTab, cronMask(cronTab, options.cron, lineNumber, hash), Collections.emptyMap(), options);
+		}
+	}
+
+	/**
+	 * The masks of a line with a time zone are read from the same line without it, they are the same.
+	 */
+	@CheckForNull
+	private static CronMask cronMask(CronTab cronTab, String cron, int lineNumber, Hash hash) {
+		if (cronTab.getTimeZone() == null) {
+			return CronMask.compile(cronTab);
 		}
+		return CronMask.compile(cronTab, cronTab(cron, lineNumber, hash, null));
 	}
 
+	/**
+	 * Schedules that do not depend on the hash are parsed once and shared by every line and job that uses them.
+	 */
+	private static CronTab cronTab(String cron, int lineNumber, Hash hash, String timezone) {
+		if (cron.indexOf('H') != -1 || cron.indexOf('@') != -1) {
+			return new CronTab(cron, lineNumber, hash, timezone);
+		}
+		String key = timezone == null ? cron : timezone + '\n' + cron;
+		CronTab cronTab = SHARED.getIfPresent(key);
+		if (cronTab == null) {
+			// a failure is not cached, so its message always names the line at hand
+			cronTab = new CronTab(cron, lineNumber, null, timezone);
+			SHARED.put(key, cronTab);
+		}
+		return cronTab;
+	}
+
+	/**
+	 * Checks the syntax of a line the way {@link #create} would, without keeping anything or filling the shared caches.
+	 *
+	 * @return the {@link CronTab#checkSanity() sanity} warning of the line, null if there is none
+	 */
+	@CheckForNull
+	static String validate(String line, int lineNumber, String timezone) {
+		int firstPercentIdx = line.indexOf("%");
+		if (firstPercentIdx != -1) {
+			LineOptions options = LineOptions.parse(line.substring(0, firstPercentIdx).trim());
+			CronTab cronTab = new CronTab(options.cron, lineNumber, null, timezone);
+			new ParameterParser().parse(line, firstPercentIdx + 1, options.quoted);
+			return cronTab.checkSanity();
+		} else {
+			return new CronTab(LineOptions.parse(line).cron, lineNumber, null, timezone).checkSanity();
+		}
+	}
+
+	/**
+	 * @return the parameters of this line, read-only
+	 */
 	public Map<String, String> getParameterValues() {
 		return parameterValues;
 	}
 
+	/**
+	 * @return the schedule part of the line, without the parameters, null if the line was not created from text
+	 */
+	@CheckForNull
+	String getCronSpec() {
+		return cronSpec;
+	}
+
+	/**
+	 * @return the seconds into the minute the line asks its builds to start at, {@link LineOptions#NO_DELAY} if it
+	 * does not say
+	 */
+	int getDelay() {
+		return delay;
+	}
+
+	OverlapPolicy getOverlapPolicy() {
+		return overlapPolicy;
+	}
+
+	@CheckForNull
+	CronMask getCronMask() {
+		return cronMask;
+	}
 
 	public boolean check(Calendar calendar) {
-		return cronTabList.check(calendar);
+		return cronMask != null ? cronMask.matches(calendar) : cronTab.check(calendar);
+	}
+
+	boolean check(TickSnapshot snapshot) {
+		if (cronMask != null) {
+			return cronMask.matches(snapshot.fields(cronMask.getTimeZone()));
+		}
+		return cronTab.check(snapshot.toCalendar());
+	}
+
+	/**
+	 * @param epochMinute the minute since the epoch to start looking from, inclusive
+	 * @return the first minute since the epoch at or after the given one that matches this line, or {@link #NEVER}
+	 */
+	public long ceil(long epochMinute) {
+		TimeZone timeZone = cronTab.getTimeZone();
+		Calendar calendar = timeZone == null ? new GregorianCalendar() : new GregorianCalendar(timeZone);
+		calendar.setTimeInMillis(TimeUnit.MINUTES.toMillis(epochMinute));
+		try {
+			return TimeUnit.MILLISECONDS.toMinutes(cronTab.ceil(calendar).getTimeInMillis());
+		} catch (RareOrImpossibleDateException e) {
+			return NEVER;
+		}
 	}
 
 	public String checkSanity() {
-		return cronTabList.checkSanity();
+		return cronTab.checkSanity();
 	}
 }
@@ -5,11 +5,13 @@ import hudson.scheduler.Hash;
 
 import java.util.ArrayList;
 import java.util.Calendar;
+import java.util.Collections;
 import java.util.List;
 import java.util.stream.Collectors;
 
 /**
- * mostly a copy of {@link CronTabList}
+ * mostly a copy of {@link CronTabList}, immutable so that jobs with the same specification can share it, see
+ * {@link CronTabListCache}
  * 
  * @author jameswilson
  *
@@ -19,7 +21,7 @@ public class ParameterizedCronTabList {
 	private final List<ParameterizedCronTab> cronTabs;
 
 	public ParameterizedCronTabList(List<ParameterizedCronTab> cronTabs) {
-		this.cronTabs = cronTabs;
+		this.cronTabs = Collections.unmodifiableList(new ArrayList<>(cronTabs));
 	}
 
 	public static ParameterizedCronTabList create(String cronTabSpecification) {
@@ -28,6 +30,30 @@ public class ParameterizedCronTabList {
 
 	public static ParameterizedCronTabList create(String cronTabSpecification, Hash hash) {
 		List<ParameterizedCronTab> result = new ArrayList<>();
+		forEachLine(cronTabSpecification, (line, lineNumber, timezone) ->
+				result.add(ParameterizedCronTab.create(line, lineNumber, hash, timezone)));
+		return new ParameterizedCronTabList(result);
+	}
+
+	/**
+	 * Checks the syntax of a specification without compiling it.
+	 *
+	 * @return the first sanity warning, as {@link #checkSanity()} would return it, null if there is none
+	 * @throws IllegalArgumentException with the same message {@link #create} would throw
+	 */
+	@CheckForNull
+	public static String validate(String cronTabSpecification) {
+		String[] warning = new String[1];
+		forEachLine(cronTabSpecification, (line, lineNumber, timezone) -> {
+			String s = ParameterizedCronTab.validate(line, lineNumber, timezone);
+			if (warning[0] == null) {
+				warning[0] = s;
+			}
+		});
+		return warning[0];
+	}
+
+	private static void forEachLine(String cronTabSpecification, LineConsumer consumer) {
 		int lineNumber = 0;
 		String timezone = null;
 		for (String line : cronTabSpecification.split("\\r?\\n")) {
@@ -41,20 +67,28 @@ public class ParameterizedCronTabList {
 					}
 				} else {
 					try {
-						result.add(ParameterizedCronTab.create(line, lineNumber, hash, timezone));
+						consumer.accept(line, lineNumber, timezone);
 					} catch (IllegalArgumentException e) {
 						throw new IllegalArgumentException(String.format("Invalid input: \"%s\": %s", line, e), e);
 					}
 				}
 			}
 		}
-		return new ParameterizedCronTabList(result);
+	}
+
+	@FunctionalInterface
+	private interface LineConsumer {
+		void accept(String line, int lineNumber, String timezone);
 	}
 
 	public List<ParameterizedCronTab> check(Calendar calendar) {
 		return cronTabs.stream().filter(tab -> tab.check(calendar)).collect(Collectors.toList());
 	}
 
+	public List<ParameterizedCronTab> getCronTabs() {
+		return cronTabs;
+	}
+
 	public String checkSanity() {
 		for (ParameterizedCronTab tab : cronTabs) {
 			String s = tab.checkSanity();
@@ -0,0 +1,196 @@
+package org.jenkinsci.plugins.parameterizedscheduler;
+
+import edu.umd.cs.findbugs.annotations.CheckForNull;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import hudson.Extension;
+import hudson.ExtensionList;
+import hudson.Util;
+import hudson.util.FormValidation;
+import jenkins.model.GlobalConfiguration;
+import jenkins.model.Jenkins;
+import net.sf.json.JSONObject;
+import org.jenkinsci.Symbol;
+import org.kohsuke.stapler.DataBoundSetter;
+import org.kohsuke.stapler.QueryParameter;
+import org.kohsuke.stapler.StaplerRequest;
+import org.kohsuke.stapler.verb.POST;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Controller-wide settings of the parameterized scheduler, under <em>Manage Jenkins &raquo; System</em>.
+ */
+@Extension @Symbol("parameterizedScheduler")
+public class ParameterizedSchedulerConfiguration extends GlobalConfiguration {
+	private static final Logger LOGGER = Logger.getLogger(ParameterizedSchedulerConfiguration.class.getName());
+
+	/**
+	 * 0 for no limit
+	 */
+	private int maxFiresPerTick;
+	/**
+	 * one {@code folder/path=limit} per line
+	 */
+	@CheckForNull
+	private String folderLimits;
+	/**
+	 * start the builds of a minute throughout it rather than all at its beginning
+	 */
+	private boolean spreadWithinMinute;
+	/**
+	 * what jobs without a policy of their own do under backpressure
+	 */
+	private BackpressurePolicy backpressurePolicy = BackpressurePolicy.NONE;
+	/**
+	 * 0 for no limit
+	 */
+	private int maxQueueLength;
+	/**
+	 * 0 for no limit
+	 */
+	private int minIdleExecutors;
+	private transient volatile AdmissionLimits limits;
+
+	public ParameterizedSchedulerConfiguration() {
+		load();
+	}
+
+	public static ParameterizedSchedulerConfiguration get() {
+		return ExtensionList.lookupSingleton(ParameterizedSchedulerConfiguration.class);
+	}
+
+	public int getMaxFiresPerTick() {
+		return maxFiresPerTick;
+	}
+
+	@DataBoundSetter
+	public void setMaxFiresPerTick(int maxFiresPerTick) {
+		this.maxFiresPerTick = Math.max(0, maxFiresPerTick);
+		limits = null;
+	}
+
+	@CheckForNull
+	public String getFolderLimits() {
+		return folderLimits;
+	}
+
+	@DataBoundSetter
+	public void setFolderLimits(@CheckForNull String folderLimits) {
+		this.folderLimits = Util.fixEmptyAndTrim(folderLimits);
+		limits = null;
+	}
+
+	public boolean isSpreadWithinMinute() {
+		return spreadWithinMinute;
+	}
+
+	@DataBoundSetter
+	public void setSpreadWithinMinute(boolean spreadWithinMinute) {
+		this.spreadWithinMinute = spreadWithinMinute;
+	}
+
+	@NonNull
+	public BackpressurePolicy getBackpressurePolicy() {
+		// null in configurations saved before the field existed
+		return backpressurePolicy != null ? backpressurePolicy : BackpressurePolicy.NONE;
+	}
+
+	@DataBoundSetter
+	public void setBackpressurePolicy(@CheckForNull BackpressurePolicy backpressurePolicy) {
+		this.backpressurePolicy = backpressurePolicy;
+	}
+
+	public int getMaxQueueLength() {
+		return maxQueueLength;
+	}
+
+	@DataBoundSetter
+	public void setMaxQueueLength(int maxQueueLength) {
+		this.maxQueueLength = Math.max(0, maxQueueLength);
+	}
+
+	public int getMinIdleExecutors() {
+		return minIdleExecutors;
+	}
+
+	@DataBoundSetter
+	public void setMinIdleExecutors(int minIdleExecutors) {
+		this.minIdleExecutors = Math.max(0, minIdleExecutors);
+	}
+
+	@Override
+	public boolean configure(StaplerRequest req, JSONObject json) throws FormException {
+		req.bindJSON(this, json);
+		limits = null;
+		save();
+		return true;
+	}
+
+	/**
+	 * @return the limits currently in effect, parsed once per change
+	 */
+	@NonNull
+	AdmissionLimits getLimits() {
+		AdmissionLimits l = limits;
+		if (l == null) {
+			Map<String, Integer> folders;
+			try {
+				folders = parseFolderLimits(folderLimits);
+			} catch (IllegalArgumentException e) {
+				// only reachable with a configuration that bypassed the form
+				LOGGER.log(Level.WARNING, "Ignoring the invalid folder limits of the parameterized scheduler", e);
+				folders = Collections.emptyMap();
+			}
+			l = new AdmissionLimits(maxFiresPerTick, folders);
+			limits = l;
+		}
+		return l;
+	}
+
+	@POST
+	public FormValidation doCheckFolderLimits(@QueryParameter String value) {
+		Jenkins.get().checkPermission(Jenkins.ADMINISTER);
+		try {
+			parseFolderLimits(value);
+			return FormValidation.ok();
+		} catch (IllegalArgumentException e) {
+			return FormValidation.error(e.getMessage());
+		}
+	}
+
+	/**
+	 * @throws IllegalArgumentException naming the first line that is not {@code folder/path=limit}
+	 */
+	static Map<String, Integer> parseFolderLimits(@CheckForNull String text) {
+		Map<String, Integer> folders = new LinkedHashMap<>();
+		if (text == null) {
+			return folders;
+		}
+		for (String line : text.split("\\r?\\n")) {
+			line = line.trim();
+			if (line.isEmpty() || line.startsWith("#")) {
+				continue;
+			}
+			int separator = line.lastIndexOf('=');
+			String folder = separator == -1 ? "" : Util.fixNull(Util.fixEmptyAndTrim(line.substring(0, separator)));
+			Integer limit = null;
+			if (separator != -1) {
+				try {
+					limit = Integer.valueOf(line.substring(separator + 1).trim());
+				} catch (NumberFormatException e) {
+					// reported below
+				}
+			}
+			if (folder.isEmpty() || limit == null || limit < 1) {
+				throw new IllegalArgumentException(Messages.ParameterizedSchedulerConfiguration_InvalidFolderLimit(line));
+			}
+			// a trailing slash is easy to type and means the same folder
+			folders.put(folder.endsWith("/") ? folder.substring(0, folder.length() - 1) : folder, limit);
+		}
+		return folders;
+	}
+}
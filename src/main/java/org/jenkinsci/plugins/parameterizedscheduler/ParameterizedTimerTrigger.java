@@ -1,22 +1,35 @@
 package org.jenkinsci.plugins.parameterizedscheduler;
 
-import hudson.model.AbstractProject;
+import edu.umd.cs.findbugs.annotations.CheckForNull;
+import hudson.Util;
+import hudson.model.BooleanParameterDefinition;
 import hudson.model.Cause;
 import hudson.model.CauseAction;
+import hudson.model.ChoiceParameterDefinition;
 import hudson.model.Job;
 import hudson.model.ParameterDefinition;
 import hudson.model.ParameterValue;
 import hudson.model.ParametersAction;
 import hudson.model.ParametersDefinitionProperty;
-import hudson.scheduler.Hash;
+import hudson.model.PasswordParameterDefinition;
+import hudson.model.StringParameterDefinition;
+import hudson.model.TextParameterDefinition;
 import hudson.triggers.Trigger;
-import org.jenkinsci.plugins.workflow.job.WorkflowJob;
+import jenkins.model.Jenkins;
+import jenkins.triggers.TriggeredItem;
 import org.kohsuke.stapler.DataBoundConstructor;
+import org.kohsuke.stapler.DataBoundSetter;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Calendar;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -29,13 +42,40 @@ import java.util.logging.Logger;
 @SuppressWarnings("rawtypes")
 public class ParameterizedTimerTrigger extends Trigger<Job> {
 	private static final Logger LOGGER = Logger.getLogger(ParameterizedTimerTrigger.class.getName());
-	private transient ParameterizedCronTabList cronTabList;
+	/**
+	 * compiled on first use, once the job, whose name seeds the hash, is known
+	 */
+	private transient volatile ParameterizedCronTabList cronTabList;
 	private final String parameterizedSpecification;
+	private transient volatile ResolvedValues resolvedValues;
+	/**
+	 * null to follow {@link ParameterizedSchedulerConfiguration#getBackpressurePolicy()}
+	 */
+	@CheckForNull
+	private BackpressurePolicy backpressure;
 
 	@DataBoundConstructor
 	public ParameterizedTimerTrigger(String parameterizedSpecification) {
 		this.parameterizedSpecification = parameterizedSpecification;
-		this.cronTabList = ParameterizedCronTabList.create(parameterizedSpecification);
+		ParameterizedCronTabList.validate(parameterizedSpecification);
+	}
+
+	/**
+	 * @return the name of this job's {@link BackpressurePolicy}, null if it follows the controller-wide one
+	 */
+	@CheckForNull
+	public String getBackpressure() {
+		return backpressure == null ? null : backpressure.name();
+	}
+
+	@DataBoundSetter
+	public void setBackpressure(@CheckForNull String backpressure) {
+		this.backpressure = Util.fixEmptyAndTrim(backpressure) == null ? null : BackpressurePolicy.valueOf(backpressure.trim());
+	}
+
+	@CheckForNull
+	BackpressurePolicy getBackpressurePolicy() {
+		return backpressure;
 	}
 
 	@Override
@@ -59,9 +99,7 @@ public class ParameterizedTimerTrigger extends Trigger<Job> {
 			ParameterValue defaultValue = paramDefinition.getDefaultParameterValue();
 
 			if (parameterValues.containsKey(paramDefinition.getName())) {
-				ParameterizedStaplerRequest request = new ParameterizedStaplerRequest(
-						parameterValues.get(paramDefinition.getName()));
-				ParameterValue value = paramDefinition.createValue(request);
+				ParameterValue value = ParameterValueBinder.bindValue(paramDefinition, parameterValues.get(paramDefinition.getName()));
 				if (value!= null) {
 					defValues.add(value);
 				} else {
@@ -76,38 +114,137 @@ public class ParameterizedTimerTrigger extends Trigger<Job> {
 	}
 
 	public void checkCronTabsAndRun(Calendar calendar) {
-		LOGGER.fine("checking and maybe running at " + calendar);
-		List<ParameterizedCronTab> cronTabs = cronTabList.check(calendar);
-
-		cronTabs.forEach(cronTab -> {
-			Map<String, String> parameterValues = cronTab.getParameterValues();
-			ParametersAction parametersAction = new ParametersAction(configurePropertyValues(parameterValues));
-			assert job != null : "job must not be null, if this was 'started'";
-			if (job instanceof AbstractProject) {
-				((AbstractProject) job).scheduleBuild2(0, (Cause)null, causeAction(parameterValues), parametersAction);
-			} else if (job instanceof WorkflowJob) {
-				((WorkflowJob) job).scheduleBuild2(0, causeAction(parameterValues), parametersAction);
+		LOGGER.log(Level.FINE, "checking and maybe running at {0}", calendar);
+		ParameterizedCronTabList cronTabs = getCronTabList();
+		if (cronTabs != null) {
+			fire(cronTabs.check(calendar));
+		}
+	}
+
+	/**
+	 * schedules a build for each of the given lines of this trigger
+	 */
+	void fire(List<ParameterizedCronTab> cronTabs) {
+		BuildSubmitter.get().submitAll(prepare(cronTabs));
+	}
+
+	/**
+	 * Resolves the parameter values of each of the given lines of this trigger in one pass, without scheduling anything
+	 * yet. Every build gets actions of its own, as the queue and the build modify them, but lines share their cause and,
+	 * where possible, their parameter values.
+	 */
+	List<FireRequest> prepare(List<ParameterizedCronTab> cronTabs) {
+		assert job != null : "job must not be null, if this was 'started'";
+		ResolvedValues resolved = resolvedValues();
+		boolean spread = ParameterizedSchedulerConfiguration.get().isSpreadWithinMinute();
+		List<FireRequest> requests = new ArrayList<>(cronTabs.size());
+		for (ParameterizedCronTab cronTab : cronTabs) {
+			ParametersAction parametersAction = new ParametersAction(new ArrayList<>(resolve(resolved, cronTab)));
+			Cause cause = resolved.causes.computeIfAbsent(cronTab, line -> new ParameterizedTimerTriggerCause(line.getParameterValues()));
+			int offset = cronTab.getDelay() != LineOptions.NO_DELAY ? cronTab.getDelay() : spread ? spreadOffset(job, cronTab) : 0;
+			requests.add(new FireRequest(this, job, cronTab, new CauseAction(cause), parametersAction, offset));
+		}
+		return requests;
+	}
+
+	/**
+	 * @return a second of the minute derived from the job and the line, so it stays the same from one run to the next
+	 */
+	static int spreadOffset(Job job, ParameterizedCronTab cronTab) {
+		int hash = Objects.hash(job.getFullName(), cronTab.getCronSpec(), cronTab.getParameterValues());
+		// String hashes are specified, so this is the same on every controller; the multiplication mixes the low bits
+		return Math.floorMod(hash * 0x9E3779B9, 60);
+	}
+
+	private ResolvedValues resolvedValues() {
+		ParametersDefinitionProperty property = (ParametersDefinitionProperty) job.getProperty(ParametersDefinitionProperty.class);
+		ResolvedValues resolved = resolvedValues;
+		if (resolved == null || resolved.property != property) {
+			// a new property means the definitions were reconfigured
+			resolved = new ResolvedValues(property);
+			resolvedValues = resolved;
+		}
+		return resolved;
+	}
+
+	/**
+	 * @return the parameter values of a line, from the cache when every parameter of the job has a static type
+	 */
+	private List<ParameterValue> resolve(ResolvedValues resolved, ParameterizedCronTab cronTab) {
+		List<ParameterValue> values = resolved.values.get(cronTab);
+		if (values == null) {
+			values = configurePropertyValues(cronTab.getParameterValues());
+			if (resolved.cacheable) {
+				values = Collections.unmodifiableList(values);
+				resolved.values.put(cronTab, values);
 			}
-		});
+		}
+		return values;
 	}
 
-	private CauseAction causeAction(Map<String, String> parameterValues) {
-		return new CauseAction(new ParameterizedTimerTriggerCause(parameterValues));
+	/**
+	 * Forgets the resolved parameter values, called when the job changes.
+	 */
+	void invalidateParameterValues() {
+		resolvedValues = null;
 	}
 
 	@Override
 	public void start(Job project, boolean newInstance) {
 		this.job = project;
+		// the job may have been renamed, which changes the hash
+		cronTabList = null;
+		resolvedValues = null;
+		TriggerRegistry.get().registerAsync(this);
+	}
+
+	@Override
+	public void stop() {
+		TriggerRegistry.get().unregister(this);
+		super.stop();
+	}
+
+	/**
+	 * @return the compiled schedule, null until the trigger has been started
+	 */
+	@CheckForNull
+	ParameterizedCronTabList getCronTabList() {
+		ParameterizedCronTabList compiled = cronTabList;
+		Job j = job;
+		if (compiled == null && j != null) {
+			compiled = compile(j.getFullName());
+			cronTabList = compiled;
+		}
+		return compiled;
+	}
 
-		try {// reparse the tabs with the job as the hash
-			cronTabList = ParameterizedCronTabList.create(parameterizedSpecification, Hash.from(project.getFullName()));
+	private ParameterizedCronTabList compile(String fullName) {
+		try {
+			return CronTabListCache.get().get(parameterizedSpecification, fullName);
 		} catch (IllegalArgumentException e) {
-			// this shouldn't fail because we've already parsed stuff in the constructor,
-			// so if it fails, use whatever 'tabs' that we already have.
-			LOGGER.log(Level.FINE, "Failed to parse crontab spec: " + spec, e);
+			// the constructor validated the specification, but a configuration loaded from disk never went through it
+			LOGGER.log(Level.WARNING, e, () -> "Failed to parse the parameterized schedule of " + fullName);
+			return new ParameterizedCronTabList(Collections.emptyList());
 		}
 	}
 
+	@CheckForNull
+	Job getJob() {
+		return job;
+	}
+
+	/**
+	 * @return whether this trigger is still the one attached to a job that is still part of the item tree
+	 */
+	boolean isLive() {
+		Job j = job;
+		if (!(j instanceof TriggeredItem)) {
+			return false;
+		}
+		return ((TriggeredItem) j).getTriggers().get(getDescriptor()) == this
+				&& Jenkins.get().getItemByFullName(j.getFullName(), Job.class) == j;
+	}
+
 	/**
 	 * for the config.jelly to populate
 	 * 
@@ -116,4 +253,30 @@ public class ParameterizedTimerTrigger extends Trigger<Job> {
 	public String getParameterizedSpecification() {
 		return parameterizedSpecification;
 	}
+
+	/**
+	 * The parameter values resolved for each line against one {@link ParametersDefinitionProperty}.
+	 */
+	private static final class ResolvedValues {
+		/**
+		 * definitions whose values only depend on the text of the line, anything else may have a dynamic default
+		 */
+		private static final Set<Class<?>> STATIC_TYPES = new HashSet<>(Arrays.asList(StringParameterDefinition.class,
+				BooleanParameterDefinition.class, ChoiceParameterDefinition.class, TextParameterDefinition.class,
+				PasswordParameterDefinition.class));
+
+		private final ParametersDefinitionProperty property;
+		private final boolean cacheable;
+		private final Map<ParameterizedCronTab, List<ParameterValue>> values = new ConcurrentHashMap<>();
+		/**
+		 * causes are immutable, whatever the parameter types
+		 */
+		private final Map<ParameterizedCronTab, Cause> causes = new ConcurrentHashMap<>();
+
+		ResolvedValues(@CheckForNull ParametersDefinitionProperty property) {
+			this.property = property;
+			cacheable = property != null && property.getParameterDefinitions().stream()
+					.allMatch(definition -> STATIC_TYPES.contains(definition.getClass()));
+		}
+	}
 }
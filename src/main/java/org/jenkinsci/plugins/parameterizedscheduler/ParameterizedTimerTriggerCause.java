@@ -1,22 +1,57 @@
 package org.jenkinsci.plugins.parameterizedscheduler;
 
+import com.google.common.collect.Interner;
+import com.google.common.collect.Interners;
+import edu.umd.cs.findbugs.annotations.CheckForNull;
 import hudson.triggers.TimerTrigger;
 
 import java.util.Map;
 import java.util.Objects;
 
+/**
+ * Only the parameters are recorded, the description is rendered when asked for. The parameter text is interned, so
+ * the causes of the builds of one line share it and usually compare by identity.
+ */
 public class ParameterizedTimerTriggerCause extends TimerTrigger.TimerTriggerCause {
+	private static final Interner<String> PARAMETERS = Interners.newWeakInterner();
 
-	private final String description;
+	/**
+	 * the parameters as they appear in the description
+	 */
+	@CheckForNull
+	private String parameters;
+	/**
+	 * the rendered description, only found in builds recorded before it was rendered lazily
+	 */
+	@CheckForNull
+	private String description;
+	private transient int hash;
 
 	public ParameterizedTimerTriggerCause(Map<String, String> parameterValues) {
-		this.description = Messages.ParameterizedTimerTrigger_TimerTriggerCause_ShortDescription(parameterValues
-				.toString());
+		this.parameters = PARAMETERS.intern(parameterValues.toString());
+	}
+
+	protected Object readResolve() {
+		if (parameters != null) {
+			parameters = PARAMETERS.intern(parameters);
+		}
+		return this;
+	}
+
+	/**
+	 * @return the parameters of the line that fired, null for builds recorded before they were kept on their own
+	 */
+	@CheckForNull
+	String getParameters() {
+		return parameters;
 	}
 
 	@Override
 	public String getShortDescription() {
-		return description;
+		if (description != null) {
+			return description;
+		}
+		return Messages.ParameterizedTimerTrigger_TimerTriggerCause_ShortDescription(parameters);
 	}
 
 	@Override
@@ -25,11 +60,17 @@ public class ParameterizedTimerTriggerCause extends TimerTrigger.TimerTriggerCau
 		if (o == null || getClass() != o.getClass()) return false;
 		if (!super.equals(o)) return false;
 		ParameterizedTimerTriggerCause that = (ParameterizedTimerTriggerCause) o;
-		return Objects.equals(description, that.description);
+		// interned, so usually settled by identity
+		return Objects.equals(parameters, that.parameters) && Objects.equals(description, that.description);
 	}
 
 	@Override
 	public int hashCode() {
-		return Objects.hash(super.hashCode(), description);
+		int h = hash;
+		if (h == 0) {
+			h = Objects.hash(super.hashCode(), parameters, description);
+			hash = h;
+		}
+		return h;
 	}
 }
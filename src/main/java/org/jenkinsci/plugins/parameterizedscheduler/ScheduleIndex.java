@@ -0,0 +1,24 @@
+package org.jenkinsci.plugins.parameterizedscheduler;
+
+import java.util.function.Consumer;
+
+/**
+ * Orders {@link ScheduledLine}s by the minute they are due, so that a tick only touches the lines that fire.
+ * Implementations are not thread safe, callers synchronize. A removed line is never added again, a new one is
+ * created instead.
+ */
+interface ScheduleIndex {
+
+	void add(ScheduledLine line);
+
+	void remove(ScheduledLine line);
+
+	/**
+	 * Removes every line that is due at or before the given minute and hands it to the consumer.
+	 *
+	 * @param minute minutes since the epoch
+	 */
+	void pollDue(long minute, Consumer<ScheduledLine> consumer);
+
+	int size();
+}
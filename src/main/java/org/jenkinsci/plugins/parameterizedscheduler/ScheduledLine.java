@@ -0,0 +1,34 @@
+package org.jenkinsci.plugins.parameterizedscheduler;
+
+/**
+ * One line of a started trigger's schedule, together with the minute it is due next.
+ */
+final class ScheduledLine {
+	final ParameterizedTimerTrigger trigger;
+	final ParameterizedCronTab cronTab;
+
+	/**
+	 * minutes since the epoch of the next fire, only changed while the line is not part of a {@link ScheduleIndex}
+	 */
+	long minute;
+
+	/**
+	 * set once the trigger is unregistered, the line must not be scheduled again after that
+	 */
+	boolean cancelled;
+
+	/**
+	 * whether the line is currently held by a {@link ScheduleIndex}, maintained by the index
+	 */
+	boolean queued;
+
+	/**
+	 * links of the slot list the line is in, used by {@link TimingWheelScheduleIndex}
+	 */
+	ScheduledLine prev, next;
+
+	ScheduledLine(ParameterizedTimerTrigger trigger, ParameterizedCronTab cronTab) {
+		this.trigger = trigger;
+		this.cronTab = cronTab;
+	}
+}
@@ -0,0 +1,75 @@
+package org.jenkinsci.plugins.parameterizedscheduler;
+
+import com.codahale.metrics.ExponentiallyDecayingReservoir;
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.Histogram;
+import com.codahale.metrics.Metric;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.MetricSet;
+import com.codahale.metrics.Timer;
+import hudson.Extension;
+import jenkins.metrics.api.MetricProvider;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Registers {@link SchedulerMetrics} with the Metrics plugin, when it is installed.
+ */
+@Extension(optional = true)
+public class SchedulerMetricProvider extends MetricProvider {
+	private final Map<String, Metric> metrics = new LinkedHashMap<>();
+
+	public SchedulerMetricProvider() {
+		SchedulerMetrics m = SchedulerMetrics.get();
+		timer("tick.duration", m.tickDuration);
+		timer("tick.lateness", m.tickLateness);
+		timer("trigger.evaluation", m.triggerEvaluation);
+		timer("schedule.latency", m.scheduleLatency);
+		timer("fire-to-queue.latency", m.fireToQueueLatency);
+		Histogram linesMatched = new Histogram(new ExponentiallyDecayingReservoir());
+		m.linesMatched.mirrorTo(linesMatched::update);
+		metrics.put(name("tick.lines-matched"), linesMatched);
+		Histogram queueLocks = new Histogram(new ExponentiallyDecayingReservoir());
+		m.queueLocksPerDrain.mirrorTo(queueLocks::update);
+		metrics.put(name("submissions.queue-locks"), queueLocks);
+		Histogram backlogWait = new Histogram(new ExponentiallyDecayingReservoir());
+		m.backlogWait.mirrorTo(backlogWait::update);
+		metrics.put(name("backlog.wait"), backlogWait);
+		metrics.put(name("backlog.depth"), (Gauge<Integer>) () -> AdmissionControl.get().getBacklog());
+		metrics.put(name("backlog.deferred"), (Gauge<Long>) m.deferredFires::sum);
+		metrics.put(name("backlog.dropped"), (Gauge<Long>) m.backlogDropped::sum);
+		metrics.put(name("backlog.superseded"), (Gauge<Long>) m.backlogSuperseded::sum);
+		metrics.put(name("backlog.expired"), (Gauge<Long>) m.backlogExpired::sum);
+		metrics.put(name("backpressure.deferred"), (Gauge<Long>) m.backpressureDeferred::sum);
+		metrics.put(name("backpressure.skipped"), (Gauge<Long>) m.backpressureSkipped::sum);
+		metrics.put(name("overlap.skipped"), (Gauge<Long>) m.overlapSkipped::sum);
+		metrics.put(name("overlap.superseded"), (Gauge<Long>) m.overlapSuperseded::sum);
+		metrics.put(name("missed-minutes"), (Gauge<Long>) m.missedMinutes::sum);
+		metrics.put(name("compilations.on-demand"), (Gauge<Long>) m.onDemandCompilations::sum);
+		metrics.put(name("compilations.pending"), (Gauge<Integer>) () -> TriggerRegistry.get().getPendingCount());
+		metrics.put(name("submissions.submitted"), (Gauge<Long>) () -> BuildSubmitter.get().getSubmitted());
+		metrics.put(name("submissions.null"), (Gauge<Long>) () -> BuildSubmitter.get().getNullSubmissions());
+		metrics.put(name("submissions.rejected"), (Gauge<Long>) () -> BuildSubmitter.get().getRejected());
+		metrics.put(name("submissions.pending"), (Gauge<Integer>) () -> BuildSubmitter.get().getPending());
+		metrics.put(name("crontab-cache.size"), (Gauge<Long>) () -> CronTabListCache.get().getSize());
+		metrics.put(name("crontab-cache.hit-rate"), (Gauge<Double>) () -> CronTabListCache.get().getStats().hitRate());
+	}
+
+	private void timer(String name, SchedulerMetrics.Histogram histogram) {
+		Timer timer = new Timer();
+		histogram.mirrorTo(v -> timer.update(v, TimeUnit.MICROSECONDS));
+		metrics.put(name(name), timer);
+	}
+
+	private static String name(String name) {
+		return MetricRegistry.name("jenkins", "parameterized-scheduler", name);
+	}
+
+	@Override
+	public MetricSet getMetricSet() {
+		return () -> Collections.unmodifiableMap(metrics);
+	}
+}
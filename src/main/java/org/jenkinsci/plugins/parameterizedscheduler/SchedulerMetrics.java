@@ -0,0 +1,196 @@
+package org.jenkinsci.plugins.parameterizedscheduler;
+
+import edu.umd.cs.findbugs.annotations.CheckForNull;
+import hudson.Extension;
+import hudson.ExtensionList;
+import org.kohsuke.accmod.Restricted;
+import org.kohsuke.accmod.restrictions.NoExternalUse;
+import org.kohsuke.stapler.export.Exported;
+import org.kohsuke.stapler.export.ExportedBean;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongConsumer;
+
+/**
+ * Instrumentation of the scheduler, kept here so it is available whether or not the Metrics plugin is installed.
+ * {@link SchedulerMetricProvider} mirrors the histograms into the Metrics plugin's registry and
+ * {@link SchedulerMetricsAction} exposes them as JSON.
+ */
+@Extension
+@Restricted(NoExternalUse.class)
+public final class SchedulerMetrics {
+
+	final Histogram tickDuration = new Histogram("microseconds");
+	final Histogram tickLateness = new Histogram("microseconds");
+	final Histogram triggerEvaluation = new Histogram("microseconds");
+	final Histogram linesMatched = new Histogram("lines");
+	final Histogram scheduleLatency = new Histogram("microseconds");
+	final Histogram fireToQueueLatency = new Histogram("microseconds");
+	/**
+	 * one drain per tick, unless the previous one is still busy
+	 */
+	final Histogram queueLocksPerDrain = new Histogram("locks");
+	/**
+	 * how long fires waited in the {@link AdmissionControl} backlog
+	 */
+	final Histogram backlogWait = new Histogram("milliseconds");
+	final LongAdder missedMinutes = new LongAdder();
+	/**
+	 * fires which did not get through {@link AdmissionControl} on their own tick
+	 */
+	final LongAdder deferredFires = new LongAdder();
+	final LongAdder backlogDropped = new LongAdder();
+	/**
+	 * waiting fires replaced by a newer fire of the same line, and those which waited too long
+	 */
+	final LongAdder backlogSuperseded = new LongAdder();
+	final LongAdder backlogExpired = new LongAdder();
+	/**
+	 * fires {@link Backpressure} held back at least once, and those it dropped
+	 */
+	final LongAdder backpressureDeferred = new LongAdder();
+	final LongAdder backpressureSkipped = new LongAdder();
+	/**
+	 * fires an {@link OverlapPolicy} skipped, and queued builds it cancelled in favour of a new fire
+	 */
+	final LongAdder overlapSkipped = new LongAdder();
+	final LongAdder overlapSuperseded = new LongAdder();
+	/**
+	 * triggers a tick had to compile itself because the background compilation had not got to them yet
+	 */
+	final LongAdder onDemandCompilations = new LongAdder();
+
+	public SchedulerMetrics() {
+	}
+
+	static SchedulerMetrics get() {
+		return ExtensionList.lookupSingleton(SchedulerMetrics.class);
+	}
+
+	static long micros(long nanos) {
+		return TimeUnit.NANOSECONDS.toMicros(nanos);
+	}
+
+	/**
+	 * A lock-free histogram with power-of-two buckets. Quantiles are reported as the upper bound of their bucket, which
+	 * is plenty to size a controller or alert on and costs a few adders per update.
+	 */
+	static final class Histogram {
+		private final String unit;
+		private final LongAdder[] buckets = new LongAdder[64];
+		private final LongAdder count = new LongAdder();
+		private final LongAdder sum = new LongAdder();
+		private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+		@CheckForNull
+		private volatile LongConsumer mirror;
+
+		Histogram(String unit) {
+			this.unit = unit;
+			for (int i = 0; i < buckets.length; i++) {
+				buckets[i] = new LongAdder();
+			}
+		}
+
+		void update(long value) {
+			long v = Math.max(0, value);
+			buckets[64 - Long.numberOfLeadingZeros(v)].increment();
+			count.increment();
+			sum.add(v);
+			max.accumulate(v);
+			LongConsumer m = mirror;
+			if (m != null) {
+				m.accept(v);
+			}
+		}
+
+		/**
+		 * Also feeds every later update to the given consumer.
+		 */
+		void mirrorTo(@CheckForNull LongConsumer mirror) {
+			this.mirror = mirror;
+		}
+
+		Snapshot snapshot() {
+			long[] counts = new long[buckets.length];
+			long total = 0;
+			for (int i = 0; i < counts.length; i++) {
+				counts[i] = buckets[i].sum();
+				total += counts[i];
+			}
+			long maximum = max.get();
+			return new Snapshot(unit, total, total == 0 ? 0 : (double) sum.sum() / total, maximum,
+					quantile(counts, total, maximum, 0.5), quantile(counts, total, maximum, 0.95),
+					quantile(counts, total, maximum, 0.99));
+		}
+
+		private static long quantile(long[] counts, long total, long maximum, double q) {
+			long rank = (long) Math.ceil(q * total);
+			long seen = 0;
+			for (int i = 0; i < counts.length; i++) {
+				seen += counts[i];
+				if (seen >= rank && seen > 0) {
+					return i == 0 ? 0 : Math.min(i == 63 ? Long.MAX_VALUE : (1L << i) - 1, maximum);
+				}
+			}
+			return 0;
+		}
+	}
+
+	@ExportedBean(defaultVisibility = 2)
+	public static final class Snapshot {
+		private final String unit;
+		private final long count;
+		private final double mean;
+		private final long max;
+		private final long p50;
+		private final long p95;
+		private final long p99;
+
+		Snapshot(String unit, long count, double mean, long max, long p50, long p95, long p99) {
+			this.unit = unit;
+			this.count = count;
+			this.mean = mean;
+			this.max = max;
+			this.p50 = p50;
+			this.p95 = p95;
+			this.p99 = p99;
+		}
+
+		@Exported
+		public String getUnit() {
+			return unit;
+		}
+
+		@Exported
+		public long getCount() {
+			return count;
+		}
+
+		@Exported
+		public double getMean() {
+			return mean;
+		}
+
+		@Exported
+		public long getMax() {
+			return max;
+		}
+
+		@Exported
+		public long getP50() {
+			return p50;
+		}
+
+		@Exported
+		public long getP95() {
+			return p95;
+		}
+
+		@Exported
+		public long getP99() {
+			return p99;
+		}
+	}
+}
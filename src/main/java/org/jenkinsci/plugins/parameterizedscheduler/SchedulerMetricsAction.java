@@ -0,0 +1,182 @@
+package org.jenkinsci.plugins.parameterizedscheduler;
+
+import hudson.Extension;
+import hudson.model.Api;
+import hudson.model.RootAction;
+import jenkins.model.Jenkins;
+import org.kohsuke.stapler.export.Exported;
+import org.kohsuke.stapler.export.ExportedBean;
+
+/**
+ * Read-only JSON view of {@link SchedulerMetrics} at {@code /parameterized-scheduler/api/json}, for controllers
+ * without the Metrics plugin.
+ */
+@Extension
+@ExportedBean
+public class SchedulerMetricsAction implements RootAction {
+
+	@Override
+	public String getIconFileName() {
+		return null;
+	}
+
+	@Override
+	public String getDisplayName() {
+		return Messages.SchedulerMetricsAction_DisplayName();
+	}
+
+	@Override
+	public String getUrlName() {
+		return "parameterized-scheduler";
+	}
+
+	public Api getApi() {
+		Jenkins.get().checkPermission(Jenkins.SYSTEM_READ);
+		return new Api(this);
+	}
+
+	@Exported
+	public SchedulerMetrics.Snapshot getTickDuration() {
+		return SchedulerMetrics.get().tickDuration.snapshot();
+	}
+
+	@Exported
+	public SchedulerMetrics.Snapshot getTickLateness() {
+		return SchedulerMetrics.get().tickLateness.snapshot();
+	}
+
+	@Exported
+	public SchedulerMetrics.Snapshot getTriggerEvaluation() {
+		return SchedulerMetrics.get().triggerEvaluation.snapshot();
+	}
+
+	@Exported
+	public SchedulerMetrics.Snapshot getLinesMatched() {
+		return SchedulerMetrics.get().linesMatched.snapshot();
+	}
+
+	@Exported
+	public SchedulerMetrics.Snapshot getScheduleLatency() {
+		return SchedulerMetrics.get().scheduleLatency.snapshot();
+	}
+
+	@Exported
+	public SchedulerMetrics.Snapshot getFireToQueueLatency() {
+		return SchedulerMetrics.get().fireToQueueLatency.snapshot();
+	}
+
+	@Exported
+	public SchedulerMetrics.Snapshot getQueueLocksPerDrain() {
+		return SchedulerMetrics.get().queueLocksPerDrain.snapshot();
+	}
+
+	@Exported
+	public long getQueueLocks() {
+		return BuildSubmitter.get().getBatches();
+	}
+
+	@Exported
+	public SchedulerMetrics.Snapshot getBacklogWait() {
+		return SchedulerMetrics.get().backlogWait.snapshot();
+	}
+
+	@Exported
+	public int getBacklog() {
+		return AdmissionControl.get().getBacklog();
+	}
+
+	@Exported
+	public long getDeferredFires() {
+		return SchedulerMetrics.get().deferredFires.sum();
+	}
+
+	@Exported
+	public long getBacklogDropped() {
+		return SchedulerMetrics.get().backlogDropped.sum();
+	}
+
+	@Exported
+	public long getBacklogSuperseded() {
+		return SchedulerMetrics.get().backlogSuperseded.sum();
+	}
+
+	@Exported
+	public long getBacklogExpired() {
+		return SchedulerMetrics.get().backlogExpired.sum();
+	}
+
+	@Exported
+	public long getBackpressureDeferred() {
+		return SchedulerMetrics.get().backpressureDeferred.sum();
+	}
+
+	@Exported
+	public long getBackpressureSkipped() {
+		return SchedulerMetrics.get().backpressureSkipped.sum();
+	}
+
+	@Exported
+	public long getOverlapSkipped() {
+		return SchedulerMetrics.get().overlapSkipped.sum();
+	}
+
+	@Exported
+	public long getOverlapSuperseded() {
+		return SchedulerMetrics.get().overlapSuperseded.sum();
+	}
+
+	@Exported
+	public long getMissedMinutes() {
+		return SchedulerMetrics.get().missedMinutes.sum();
+	}
+
+	@Exported
+	public long getOnDemandCompilations() {
+		return SchedulerMetrics.get().onDemandCompilations.sum();
+	}
+
+	@Exported
+	public int getPendingCompilations() {
+		return TriggerRegistry.get().getPendingCount();
+	}
+
+	@Exported
+	public long getSubmitted() {
+		return BuildSubmitter.get().getSubmitted();
+	}
+
+	@Exported
+	public long getNullSubmissions() {
+		return BuildSubmitter.get().getNullSubmissions();
+	}
+
+	@Exported
+	public long getRejected() {
+		return BuildSubmitter.get().getRejected();
+	}
+
+	@Exported
+	public int getPending() {
+		return BuildSubmitter.get().getPending();
+	}
+
+	@Exported
+	public long getCronTabCacheSize() {
+		return CronTabListCache.get().getSize();
+	}
+
+	@Exported
+	public long getCronTabCacheHits() {
+		return CronTabListCache.get().getStats().hitCount();
+	}
+
+	@Exported
+	public long getCronTabCacheMisses() {
+		return CronTabListCache.get().getStats().missCount();
+	}
+
+	@Exported
+	public double getCronTabCacheHitRate() {
+		return CronTabListCache.get().getStats().hitRate();
+	}
+}
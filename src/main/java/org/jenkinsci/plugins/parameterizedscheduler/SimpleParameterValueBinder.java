@@ -0,0 +1,25 @@
+package org.jenkinsci.plugins.parameterizedscheduler;
+
+import hudson.Extension;
+import hudson.model.ParameterDefinition;
+import hudson.model.ParameterValue;
+import hudson.model.SimpleParameterDefinition;
+
+/**
+ * Binds the core String, Boolean, Choice, Text and Password definitions, and any other
+ * {@link SimpleParameterDefinition}, straight from the text. Their {@code createValue(StaplerRequest)} is final and
+ * does nothing more than hand the single request value to {@link SimpleParameterDefinition#createValue(String)}.
+ */
+@Extension(ordinal = -100)
+public class SimpleParameterValueBinder extends ParameterValueBinder {
+
+	@Override
+	public boolean isApplicable(ParameterDefinition definition) {
+		return definition instanceof SimpleParameterDefinition;
+	}
+
+	@Override
+	public ParameterValue bind(ParameterDefinition definition, String value) {
+		return ((SimpleParameterDefinition) definition).createValue(value);
+	}
+}
@@ -0,0 +1,73 @@
+package org.jenkinsci.plugins.parameterizedscheduler;
+
+import edu.umd.cs.findbugs.annotations.CheckForNull;
+
+import java.util.Calendar;
+import java.util.GregorianCalendar;
+import java.util.Map;
+import java.util.TimeZone;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The single instant a tick evaluates every trigger against. Its calendar fields are worked out once for each
+ * distinct time zone used by the schedules, instead of once per job or per {@code TZ=} line.
+ */
+final class TickSnapshot {
+	private final long millis;
+	private final TimeZone defaultTimeZone;
+	private final Map<String, CalendarFields> fields = new ConcurrentHashMap<>();
+
+	TickSnapshot(long millis, TimeZone defaultTimeZone) {
+		this.millis = millis;
+		this.defaultTimeZone = defaultTimeZone;
+	}
+
+	static TickSnapshot now() {
+		return new TickSnapshot(System.currentTimeMillis(), TimeZone.getDefault());
+	}
+
+	/**
+	 * @return a snapshot which evaluates lines without {@code TZ=} in the calendar's own time zone, like
+	 * {@link hudson.scheduler.CronTab#check(Calendar)} does
+	 */
+	static TickSnapshot of(Calendar calendar) {
+		return new TickSnapshot(calendar.getTimeInMillis(), calendar.getTimeZone());
+	}
+
+	/**
+	 * @param minute minutes since the epoch
+	 * @return a snapshot of another minute, in the same default time zone
+	 */
+	TickSnapshot at(long minute) {
+		return new TickSnapshot(TimeUnit.MINUTES.toMillis(minute), defaultTimeZone);
+	}
+
+	long getMillis() {
+		return millis;
+	}
+
+	/**
+	 * @return minutes since the epoch
+	 */
+	long getMinute() {
+		return TimeUnit.MILLISECONDS.toMinutes(millis);
+	}
+
+	/**
+	 * @param timeZone the time zone of a spec, null for the default one
+	 */
+	CalendarFields fields(@CheckForNull TimeZone timeZone) {
+		TimeZone zone = timeZone != null ? timeZone : defaultTimeZone;
+		return fields.computeIfAbsent(zone.getID(), id -> CalendarFields.of(millis, zone));
+	}
+
+	/**
+	 * @return a new calendar in the default time zone, for lines that could not be compiled
+	 */
+	Calendar toCalendar() {
+		Calendar calendar = new GregorianCalendar(defaultTimeZone);
+		calendar.setTimeInMillis(millis);
+		return calendar;
+	}
+}
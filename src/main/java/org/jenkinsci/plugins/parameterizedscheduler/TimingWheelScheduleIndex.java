@@ -0,0 +1,182 @@
+package org.jenkinsci.plugins.parameterizedscheduler;
+
+import java.util.function.Consumer;
+
+/**
+ * {@link ScheduleIndex} backed by hierarchical timing wheels: a minute wheel for the current hour, an hour wheel for
+ * the current day and a day wheel reaching further out than {@link hudson.scheduler.CronTab#ceil} ever looks.
+ * Lines move down a wheel when the cursor enters their hour or day. Adding and removing a line are constant time,
+ * advancing costs one slot per minute plus the lines cascading through it.
+ */
+final class TimingWheelScheduleIndex implements ScheduleIndex {
+	private static final int MINUTES = 60;
+	private static final int HOURS = 24;
+	private static final int DAYS = 1024;
+	private static final long MINUTES_PER_DAY = MINUTES * HOURS;
+
+	private final ScheduledLine[] minuteWheel = slots(MINUTES);
+	private final ScheduledLine[] hourWheel = slots(HOURS);
+	private final ScheduledLine[] dayWheel = slots(DAYS);
+	/**
+	 * lines at or before the cursor, waiting to be polled
+	 */
+	private final ScheduledLine due = slot();
+	/**
+	 * lines beyond the reach of the day wheel
+	 */
+	private final ScheduledLine overflow = slot();
+
+	/**
+	 * the last minute that has been advanced to
+	 */
+	private long current;
+	private int size;
+
+	/**
+	 * @param minute minutes since the epoch the wheels start at
+	 */
+	TimingWheelScheduleIndex(long minute) {
+		this.current = minute;
+	}
+
+	@Override
+	public void add(ScheduledLine line) {
+		line.queued = true;
+		size++;
+		place(line);
+	}
+
+	@Override
+	public void remove(ScheduledLine line) {
+		if (!line.queued) {
+			return;
+		}
+		line.queued = false;
+		size--;
+		unlink(line);
+	}
+
+	@Override
+	public void pollDue(long minute, Consumer<ScheduledLine> consumer) {
+		if (minute - current > 2 * MINUTES_PER_DAY) {
+			// a long way to go, cheaper to sort everything again than to step through every minute
+			ScheduledLine all = slot();
+			drainInto(all, minuteWheel);
+			drainInto(all, hourWheel);
+			drainInto(all, dayWheel);
+			drainInto(all, overflow);
+			current = minute;
+			drain(all, this::place);
+		}
+		while (current < minute) {
+			advance();
+		}
+		for (ScheduledLine line = due.next; line != due; ) {
+			ScheduledLine next = line.next;
+			if (line.minute <= minute) {
+				unlink(line);
+				line.queued = false;
+				size--;
+				consumer.accept(line);
+			}
+			line = next;
+		}
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	private void advance() {
+		long minute = ++current;
+		if (minute % MINUTES_PER_DAY == 0) {
+			drain(dayWheel[index(minute / MINUTES_PER_DAY, DAYS)], this::place);
+			drain(overflow, this::place);
+		}
+		if (minute % MINUTES == 0) {
+			drain(hourWheel[index(minute / MINUTES, HOURS)], this::place);
+		}
+		drain(minuteWheel[index(minute, MINUTES)], this::place);
+	}
+
+	private void place(ScheduledLine line) {
+		long minute = line.minute;
+		ScheduledLine slot;
+		if (minute <= current) {
+			slot = due;
+		} else if (minute / MINUTES == current / MINUTES) {
+			slot = minuteWheel[index(minute, MINUTES)];
+		} else if (minute / MINUTES_PER_DAY == current / MINUTES_PER_DAY) {
+			slot = hourWheel[index(minute / MINUTES, HOURS)];
+		} else if (minute / MINUTES_PER_DAY - current / MINUTES_PER_DAY < DAYS) {
+			slot = dayWheel[index(minute / MINUTES_PER_DAY, DAYS)];
+		} else {
+			slot = overflow;
+		}
+		line.prev = slot.prev;
+		line.next = slot;
+		slot.prev.next = line;
+		slot.prev = line;
+	}
+
+	private static int index(long value, int slots) {
+		return (int) Math.floorMod(value, (long) slots);
+	}
+
+	private static void unlink(ScheduledLine line) {
+		line.prev.next = line.next;
+		line.next.prev = line.prev;
+		line.prev = null;
+		line.next = null;
+	}
+
+	/**
+	 * empties the slot, handing each line to the consumer, which may put it back into any other slot
+	 */
+	private static void drain(ScheduledLine slot, Consumer<ScheduledLine> consumer) {
+		ScheduledLine first = slot.next;
+		if (first == slot) {
+			return;
+		}
+		ScheduledLine last = slot.prev;
+		slot.next = slot;
+		slot.prev = slot;
+		last.next = null;
+		for (ScheduledLine line = first; line != null; ) {
+			ScheduledLine next = line.next;
+			consumer.accept(line);
+			line = next;
+		}
+	}
+
+	private static void drainInto(ScheduledLine target, ScheduledLine... slots) {
+		for (ScheduledLine slot : slots) {
+			drainInto(target, slot);
+		}
+	}
+
+	private static void drainInto(ScheduledLine target, ScheduledLine slot) {
+		drain(slot, line -> {
+			line.prev = target.prev;
+			line.next = target;
+			target.prev.next = line;
+			target.prev = line;
+		});
+	}
+
+	private static ScheduledLine slot() {
+		ScheduledLine sentinel = new ScheduledLine(null, null);
+		sentinel.prev = sentinel;
+		sentinel.next = sentinel;
+		return sentinel;
+	}
+
+	private static ScheduledLine[] slots(int count) {
+		ScheduledLine[] slots = new ScheduledLine[count];
+		for (int i = 0; i < count; i++) {
+			slots[i] = slot();
+		}
+		return slots;
+	}
+}
@@ -0,0 +1,184 @@
+package org.jenkinsci.plugins.parameterizedscheduler;
+
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import hudson.model.Job;
+import hudson.security.ACL;
+import hudson.security.ACLContext;
+import hudson.util.DaemonThreadFactory;
+import hudson.util.NamedThreadFactory;
+import jenkins.util.SystemProperties;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Works out what the due lines of a tick fire: confirms each line against the tick's {@link TickSnapshot}, moves it
+ * on to its next occurrence and resolves the parameter values of the builds to schedule.
+ * <p>
+ * Above {@link #THRESHOLD} due triggers the work is split into chunks evaluated on a small pool of
+ * {@link #PARALLELISM} threads. Either way the requests come back in the order of the due triggers, so scheduling
+ * stays a single ordered stage, and a failing trigger only loses its own builds.
+ */
+final class TriggerEvaluator {
+	private static final Logger LOGGER = Logger.getLogger(TriggerEvaluator.class.getName());
+
+	static final int PARALLELISM = SystemProperties.getInteger(TriggerEvaluator.class.getName() + ".parallelism",
+			Math.min(4, Runtime.getRuntime().availableProcessors()));
+	@SuppressFBWarnings(value = "MS_SHOULD_BE_FINAL", justification = "for script console")
+	static /* non-final for script console */ int THRESHOLD = SystemProperties.getInteger(TriggerEvaluator.class.getName() + ".threshold", 500);
+	@SuppressFBWarnings(value = "MS_SHOULD_BE_FINAL", justification = "for script console")
+	static /* non-final for script console */ MissedMinutePolicy MISSED_MINUTE_POLICY = MissedMinutePolicy.valueOf(
+			SystemProperties.getString(TriggerEvaluator.class.getName() + ".missedMinutePolicy", MissedMinutePolicy.FIRE_LATEST.name()));
+	/**
+	 * how far back missed minutes are caught up on, older ones are skipped whatever the policy
+	 */
+	static final int MAX_CATCH_UP_MINUTES = SystemProperties.getInteger(TriggerEvaluator.class.getName() + ".maxCatchUpMinutes", 60);
+
+	private static ExecutorService pool;
+
+	private TriggerEvaluator() {
+	}
+
+	/**
+	 * @param lastEvaluated the minute the previous tick evaluated, -1 if there was none
+	 */
+	static List<FireRequest> evaluate(Map<ParameterizedTimerTrigger, List<ScheduledLine>> due, TickSnapshot snapshot,
+			long lastEvaluated) throws InterruptedException {
+		List<Map.Entry<ParameterizedTimerTrigger, List<ScheduledLine>>> entries = new ArrayList<>(due.entrySet());
+		if (PARALLELISM <= 1 || entries.size() < THRESHOLD) {
+			return evaluate(entries, snapshot, lastEvaluated);
+		}
+
+		int chunkSize = Math.max(1, (entries.size() + PARALLELISM * 4 - 1) / (PARALLELISM * 4));
+		List<Callable<List<FireRequest>>> chunks = new ArrayList<>();
+		for (int i = 0; i < entries.size(); i += chunkSize) {
+			List<Map.Entry<ParameterizedTimerTrigger, List<ScheduledLine>>> chunk = entries.subList(i, Math.min(entries.size(), i + chunkSize));
+			chunks.add(() -> {
+				try (ACLContext ignored = ACL.as2(ACL.SYSTEM2)) {
+					return evaluate(chunk, snapshot, lastEvaluated);
+				}
+			});
+		}
+		List<FireRequest> requests = new ArrayList<>();
+		for (Future<List<FireRequest>> future : getPool().invokeAll(chunks)) {
+			try {
+				requests.addAll(future.get());
+			} catch (ExecutionException e) {
+				// evaluate() already isolates failures per trigger, so this is not expected
+				LOGGER.log(Level.WARNING, "Failed to evaluate a chunk of parameterized schedules", e.getCause());
+			}
+		}
+		return requests;
+	}
+
+	private static List<FireRequest> evaluate(List<Map.Entry<ParameterizedTimerTrigger, List<ScheduledLine>>> entries,
+			TickSnapshot snapshot, long lastEvaluated) {
+		SchedulerMetrics metrics = SchedulerMetrics.get();
+		List<FireRequest> requests = new ArrayList<>();
+		for (Map.Entry<ParameterizedTimerTrigger, List<ScheduledLine>> entry : entries) {
+			long start = System.nanoTime();
+			try {
+				requests.addAll(evaluate(entry.getKey(), entry.getValue(), snapshot, lastEvaluated));
+			} catch (RuntimeException e) {
+				LOGGER.log(Level.WARNING, e, () -> "Failed to evaluate the parameterized schedule of " + entry.getKey().getJob());
+			}
+			metrics.triggerEvaluation.update(SchedulerMetrics.micros(System.nanoTime() - start));
+		}
+		return requests;
+	}
+
+	/**
+	 * Lines found due at an earlier minute were either registered after that minute had been evaluated, and are moved
+	 * on without firing like the scan over all jobs used to, or were due in a minute no tick evaluated, and are caught
+	 * up on according to {@link #MISSED_MINUTE_POLICY}.
+	 */
+	static List<FireRequest> evaluate(ParameterizedTimerTrigger trigger, List<ScheduledLine> lines, TickSnapshot snapshot,
+			long lastEvaluated) {
+		long minute = snapshot.getMinute();
+		List<ParameterizedCronTab> firing = new ArrayList<>();
+		for (ScheduledLine line : lines) {
+			if (line.minute < minute) {
+				if (lastEvaluated >= 0 && line.minute > lastEvaluated) {
+					catchUp(trigger, line, snapshot, firing);
+				} else {
+					LOGGER.log(Level.FINER, "not firing a line of {0} for the past minute {1}", new Object[] {trigger.getJob(), line.minute});
+				}
+				line.minute = line.cronTab.ceil(minute);
+			}
+			if (line.minute == minute) {
+				// the index is built from CronTab.ceil, but check() has always had the final word, e.g. around DST changes
+				if (line.cronTab.check(snapshot)) {
+					firing.add(line.cronTab);
+				}
+				line.minute = line.cronTab.ceil(minute + 1);
+			}
+		}
+		if (firing.isEmpty() || !trigger.isLive()) {
+			// not attached (yet, or any more), the registry catches up on item events
+			return Collections.emptyList();
+		}
+
+		Job job = trigger.getJob();
+		if (LOGGER.isLoggable(Level.FINE)) {
+			LOGGER.log(Level.FINE, "cron firing {0}", job.getFullName());
+		}
+		try {
+			return trigger.prepare(firing);
+		} catch (Throwable e) {
+			// t.run() is a plugin, and some of them throw RuntimeException and other things.
+			// don't let that cancel the polling activity. report and move on.
+			LOGGER.log(Level.WARNING, e, () -> trigger.getClass().getName() + ".run() failed for " + job.getFullName());
+			return Collections.emptyList();
+		}
+	}
+
+	private static void catchUp(ParameterizedTimerTrigger trigger, ScheduledLine line, TickSnapshot snapshot,
+			List<ParameterizedCronTab> firing) {
+		long minute = snapshot.getMinute();
+		long from = line.minute;
+		if (from < minute - MAX_CATCH_UP_MINUTES) {
+			from = line.cronTab.ceil(minute - MAX_CATCH_UP_MINUTES);
+			LOGGER.log(Level.WARNING, "Not catching up on a line of {0} missed more than {1} minutes ago",
+					new Object[] {trigger.getJob(), MAX_CATCH_UP_MINUTES});
+		}
+		int missed = 0;
+		long latest = -1;
+		for (long m = from; m < minute; m = line.cronTab.ceil(m + 1)) {
+			if (!line.cronTab.check(snapshot.at(m))) {
+				continue;
+			}
+			missed++;
+			latest = m;
+			if (MISSED_MINUTE_POLICY == MissedMinutePolicy.FIRE_ALL) {
+				firing.add(line.cronTab);
+			}
+		}
+		if (missed > 0) {
+			if (MISSED_MINUTE_POLICY == MissedMinutePolicy.FIRE_LATEST) {
+				firing.add(line.cronTab);
+			}
+			LOGGER.log(MISSED_MINUTE_POLICY == MissedMinutePolicy.SKIP ? Level.WARNING : Level.INFO,
+					"A line of {0} missed {1} occurrence(s), the latest at {2}, policy {3}",
+					new Object[] {trigger.getJob(), missed, new Date(TimeUnit.MINUTES.toMillis(latest)), MISSED_MINUTE_POLICY});
+		}
+	}
+
+	private static synchronized ExecutorService getPool() {
+		if (pool == null) {
+			pool = Executors.newFixedThreadPool(PARALLELISM,
+					new NamedThreadFactory(new DaemonThreadFactory(), "ParameterizedScheduler evaluation"));
+		}
+		return pool;
+	}
+}
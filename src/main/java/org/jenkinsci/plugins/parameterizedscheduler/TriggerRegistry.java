@@ -0,0 +1,277 @@
+package org.jenkinsci.plugins.parameterizedscheduler;
+
+import edu.umd.cs.findbugs.annotations.CheckForNull;
+import hudson.Extension;
+import hudson.ExtensionList;
+import hudson.model.Item;
+import hudson.model.Job;
+import hudson.model.listeners.ItemListener;
+import hudson.util.DaemonThreadFactory;
+import hudson.util.NamedThreadFactory;
+import jenkins.util.SystemProperties;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Keeps track of every started {@link ParameterizedTimerTrigger}, so that {@link Cron} only has to look at the jobs
+ * which actually carry a parameterized schedule instead of walking the whole item tree each minute.
+ * <p>
+ * Triggers add themselves in {@link ParameterizedTimerTrigger#start} and remove themselves in
+ * {@link ParameterizedTimerTrigger#stop}; item events cover the cases where a job goes away or changes its name
+ * without its triggers being stopped or restarted.
+ * <p>
+ * Every line of a registered schedule is kept in a {@link ScheduleIndex} under the minute it fires next, so a tick
+ * only touches the lines that are due instead of checking every line of every job.
+ * <p>
+ * Starting a trigger only queues it: its schedule is compiled on a small background pool, off the thread that loads
+ * jobs, and its lines enter the index once that is done. A tick first compiles whatever is still queued, so no fire is
+ * lost to a slow boot.
+ */
+@Extension
+public class TriggerRegistry extends ItemListener {
+	private static final Logger LOGGER = Logger.getLogger(TriggerRegistry.class.getName());
+
+	/**
+	 * {@code heap} (the default) or {@code wheel}, the latter pays off with hundreds of thousands of lines
+	 */
+	private static final String SCHEDULE_INDEX = SystemProperties.getString(TriggerRegistry.class.getName() + ".scheduleIndex", "heap");
+	static final int COMPILER_THREADS = SystemProperties.getInteger(TriggerRegistry.class.getName() + ".compilerThreads",
+			Math.min(4, Runtime.getRuntime().availableProcessors()));
+
+	private static ExecutorService compiler;
+
+	private final Map<ParameterizedTimerTrigger, List<ScheduledLine>> schedules = new ConcurrentHashMap<>();
+	private final ScheduleIndex index = createIndex(SCHEDULE_INDEX);
+	/**
+	 * started triggers whose schedule is not in the index yet, with the token of their latest start
+	 */
+	private final Map<ParameterizedTimerTrigger, Object> pending = new ConcurrentHashMap<>();
+	private long lastEvaluated = -1;
+
+	public static TriggerRegistry get() {
+		return ExtensionList.lookupSingleton(TriggerRegistry.class);
+	}
+
+	static ScheduleIndex createIndex(String name) {
+		switch (name) {
+			case "wheel":
+				return new TimingWheelScheduleIndex(TimeUnit.MILLISECONDS.toMinutes(System.currentTimeMillis()));
+			case "heap":
+				return new HeapScheduleIndex();
+			default:
+				LOGGER.log(Level.WARNING, "Unknown schedule index {0}, using heap", name);
+				return new HeapScheduleIndex();
+		}
+	}
+
+	/**
+	 * Compiles the schedule of the trigger in the background and then registers it, unless the trigger has been started
+	 * again or stopped in the meantime.
+	 */
+	void registerAsync(ParameterizedTimerTrigger trigger) {
+		Object token = new Object();
+		synchronized (index) {
+			// known right away, so that item events reach it before it is compiled
+			cancel(schedules.put(trigger, Collections.emptyList()));
+			pending.put(trigger, token);
+		}
+		getCompiler().execute(() -> compileAndRegister(trigger, token));
+	}
+
+	/**
+	 * Compiles and registers, on the calling thread, every trigger still waiting for the background pool.
+	 *
+	 * @return how many triggers were compiled here
+	 */
+	int compilePending() {
+		int compiled = 0;
+		for (Map.Entry<ParameterizedTimerTrigger, Object> entry : pending.entrySet()) {
+			if (compileAndRegister(entry.getKey(), entry.getValue())) {
+				compiled++;
+			}
+		}
+		return compiled;
+	}
+
+	int getPendingCount() {
+		return pending.size();
+	}
+
+	private boolean compileAndRegister(ParameterizedTimerTrigger trigger, Object token) {
+		try {
+			// the expensive part, outside of the lock
+			trigger.getCronTabList();
+		} catch (RuntimeException e) {
+			LOGGER.log(Level.WARNING, e, () -> "Failed to compile the parameterized schedule of " + trigger.getJob());
+		}
+		return register(trigger, token);
+	}
+
+	/**
+	 * (Re)computes the schedule of the trigger, the first fire considered is the current minute.
+	 *
+	 * @param token only register if this is still the latest start of the trigger
+	 */
+	private boolean register(ParameterizedTimerTrigger trigger, Object token) {
+		long now = TimeUnit.MILLISECONDS.toMinutes(System.currentTimeMillis());
+		List<ScheduledLine> lines = new ArrayList<>();
+		ParameterizedCronTabList cronTabList = trigger.getCronTabList();
+		if (cronTabList != null) {
+			for (ParameterizedCronTab cronTab : cronTabList.getCronTabs()) {
+				ScheduledLine line = new ScheduledLine(trigger, cronTab);
+				line.minute = cronTab.ceil(now);
+				lines.add(line);
+			}
+		}
+		synchronized (index) {
+			if (!pending.remove(trigger, token)) {
+				return false;
+			}
+			cancel(schedules.put(trigger, lines));
+			lines.forEach(this::schedule);
+			return true;
+		}
+	}
+
+	void unregister(ParameterizedTimerTrigger trigger) {
+		synchronized (index) {
+			pending.remove(trigger);
+			cancel(schedules.remove(trigger));
+		}
+	}
+
+	/**
+	 * @return a live, read-only view of the registered triggers
+	 */
+	Collection<ParameterizedTimerTrigger> getTriggers() {
+		return Collections.unmodifiableSet(schedules.keySet());
+	}
+
+	/**
+	 * Takes every line due at or before the given minute out of the index. The caller moves each of them on to its
+	 * next occurrence and hands them back through {@link #putBack}.
+	 *
+	 * @param minute minutes since the epoch
+	 * @return the due lines grouped by trigger, in the order they were taken out of the index
+	 */
+	Map<ParameterizedTimerTrigger, List<ScheduledLine>> takeDue(long minute) {
+		List<ScheduledLine> polled = new ArrayList<>();
+		synchronized (index) {
+			index.pollDue(minute, polled::add);
+		}
+		Map<ParameterizedTimerTrigger, List<ScheduledLine>> due = new LinkedHashMap<>();
+		for (ScheduledLine line : polled) {
+			due.computeIfAbsent(line.trigger, t -> new ArrayList<>()).add(line);
+		}
+		return due;
+	}
+
+	/**
+	 * Records that a tick evaluates the given minute. Evaluating a minute twice is harmless, its lines have already
+	 * been moved on by the time the second tick looks.
+	 *
+	 * @return the latest minute evaluated before, -1 if there was none
+	 */
+	synchronized long markEvaluated(long minute) {
+		long previous = lastEvaluated;
+		lastEvaluated = Math.max(lastEvaluated, minute);
+		return previous;
+	}
+
+	void putBack(Collection<List<ScheduledLine>> lines) {
+		synchronized (index) {
+			for (List<ScheduledLine> triggerLines : lines) {
+				triggerLines.forEach(this::schedule);
+			}
+		}
+	}
+
+	private void schedule(ScheduledLine line) {
+		if (!line.cancelled && line.minute != ParameterizedCronTab.NEVER) {
+			index.add(line);
+		}
+	}
+
+	private void cancel(@CheckForNull List<ScheduledLine> lines) {
+		if (lines == null) {
+			return;
+		}
+		for (ScheduledLine line : lines) {
+			line.cancelled = true;
+			index.remove(line);
+		}
+	}
+
+	@Override
+	public void onDeleted(Item item) {
+		String fullName = item.getFullName();
+		for (ParameterizedTimerTrigger trigger : schedules.keySet()) {
+			if (isWithin(trigger.getJob(), item, fullName)) {
+				unregister(trigger);
+			}
+		}
+	}
+
+	@Override
+	public void onLocationChanged(Item item, String oldFullName, String newFullName) {
+		for (ParameterizedTimerTrigger trigger : schedules.keySet()) {
+			Job job = trigger.getJob();
+			if (isWithin(job, item, newFullName)) {
+				// the hash used for "H" is derived from the full name, so the schedule has to follow the job
+				LOGGER.log(Level.FINE, "restarting parameterized schedule of moved job {0}", newFullName);
+				trigger.start(job, false);
+			}
+		}
+	}
+
+	@Override
+	public void onUpdated(Item item) {
+		String fullName = item.getFullName();
+		for (ParameterizedTimerTrigger trigger : schedules.keySet()) {
+			if (isWithin(trigger.getJob(), item, fullName)) {
+				if (trigger.isLive()) {
+					trigger.invalidateParameterValues();
+				} else {
+					unregister(trigger);
+				}
+			}
+		}
+	}
+
+	@Override
+	public void onLoaded() {
+		// a configuration reload replaces every job without stopping the old triggers
+		for (ParameterizedTimerTrigger trigger : schedules.keySet()) {
+			if (!trigger.isLive()) {
+				unregister(trigger);
+			}
+		}
+	}
+
+	private static synchronized ExecutorService getCompiler() {
+		if (compiler == null) {
+			ThreadPoolExecutor executor = new ThreadPoolExecutor(COMPILER_THREADS, COMPILER_THREADS, 60, TimeUnit.SECONDS,
+					new LinkedBlockingQueue<>(), new NamedThreadFactory(new DaemonThreadFactory(), "ParameterizedScheduler compiler"));
+			// busy at boot, idle after that
+			executor.allowCoreThreadTimeOut(true);
+			compiler = executor;
+		}
+		return compiler;
+	}
+
+	private static boolean isWithin(Job job, Item item, String fullName) {
+		return job != null && (job == item || job.getFullName().startsWith(fullName + "/"));
+	}
+}
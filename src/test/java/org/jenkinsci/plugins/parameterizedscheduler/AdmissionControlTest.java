@@ -0,0 +1,183 @@
+package org.jenkinsci.plugins.parameterizedscheduler;
+
+import hudson.model.Job;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class AdmissionControlTest {
+
+	private final ParameterizedTimerTrigger trigger = mock(ParameterizedTimerTrigger.class);
+	private final SchedulerMetrics metrics = new SchedulerMetrics();
+
+	@Test
+	public void unlimitedPassesEverythingThrough() {
+		AdmissionControl testObject = new AdmissionControl(100, metrics);
+		List<FireRequest> fresh = requests("a", "b");
+		assertThat(testObject.admit(fresh, AdmissionLimits.NONE, Backpressure.NONE), is(sameInstance(fresh)));
+		assertThat(testObject.getBacklog(), is(0));
+	}
+
+	@Test
+	public void excessWaitsInOrder() {
+		when(trigger.isLive()).thenReturn(true);
+		AdmissionControl testObject = new AdmissionControl(100, metrics);
+		AdmissionLimits limits = new AdmissionLimits(2, Collections.emptyMap());
+		List<FireRequest> first = requests("a", "b", "c", "d", "e");
+		assertThat(testObject.admit(first, limits, Backpressure.NONE), contains(first.get(0), first.get(1)));
+		assertThat(testObject.getBacklog(), is(3));
+
+		List<FireRequest> second = requests("f");
+		assertThat(testObject.admit(second, limits, Backpressure.NONE), contains(first.get(2), first.get(3)));
+		assertThat(testObject.admit(Collections.emptyList(), limits, Backpressure.NONE), contains(first.get(4), second.get(0)));
+		assertThat(testObject.getBacklog(), is(0));
+		// back to the fast path once the backlog is gone
+		assertThat(testObject.admit(Collections.emptyList(), AdmissionLimits.NONE, Backpressure.NONE), is(empty()));
+	}
+
+	@Test
+	public void folderLimitDoesNotHoldUpOthers() {
+		when(trigger.isLive()).thenReturn(true);
+		AdmissionControl testObject = new AdmissionControl(100, metrics);
+		AdmissionLimits limits = new AdmissionLimits(0, Collections.singletonMap("team", 1));
+		List<FireRequest> fresh = requests("team/a", "team/b", "other", "team/sub/c");
+		assertThat(testObject.admit(fresh, limits, Backpressure.NONE), contains(fresh.get(0), fresh.get(2)));
+		assertThat(testObject.admit(Collections.emptyList(), limits, Backpressure.NONE), contains(fresh.get(1)));
+		assertThat(testObject.admit(Collections.emptyList(), limits, Backpressure.NONE), contains(fresh.get(3)));
+	}
+
+	@Test
+	public void mostSpecificFolderCounts() {
+		Map<String, Integer> folders = new HashMap<>();
+		folders.put("team", 1);
+		folders.put("team/sub", 5);
+		AdmissionLimits limits = new AdmissionLimits(0, folders);
+		assertThat(limits.folderOf("team/sub/job"), is("team/sub"));
+		assertThat(limits.folderOf("team/job"), is("team"));
+		assertThat(limits.folderOf("teamwork/job"), is(nullValue()));
+	}
+
+	@Test
+	public void stoppedTriggersAreDroppedFromTheBacklog() {
+		AdmissionControl testObject = new AdmissionControl(100, metrics);
+		AdmissionLimits limits = new AdmissionLimits(1, Collections.emptyMap());
+		List<FireRequest> fresh = requests("a", "b");
+		assertThat(testObject.admit(fresh, limits, Backpressure.NONE), contains(fresh.get(0)));
+		when(trigger.isLive()).thenReturn(false);
+		assertThat(testObject.admit(Collections.emptyList(), limits, Backpressure.NONE), is(empty()));
+		assertThat(testObject.getBacklog(), is(0));
+	}
+
+	@Test
+	public void fullBacklogDropsNewFires() {
+		AdmissionControl testObject = new AdmissionControl(2, metrics);
+		AdmissionLimits limits = new AdmissionLimits(1, Collections.emptyMap());
+		testObject.admit(requests("a", "b", "c"), limits, Backpressure.NONE);
+		assertThat(metrics.backlogDropped.sum(), is(1L));
+		assertThat(testObject.getBacklog(), is(1));
+	}
+
+	@Test
+	public void lineKeepsOnlyItsNewestFire() {
+		when(trigger.isLive()).thenReturn(true);
+		AdmissionControl testObject = new AdmissionControl(100, metrics);
+		AdmissionLimits limits = new AdmissionLimits(1, Collections.emptyMap());
+		Job every = mock(Job.class);
+		when(every.getFullName()).thenReturn("every");
+		List<FireRequest> minutes = new ArrayList<>();
+		for (int minute = 0; minute < 3; minute++) {
+			minutes.add(new FireRequest(trigger, every, null, null, null));
+		}
+
+		List<FireRequest> fresh = requests("a", "b");
+		fresh.add(minutes.get(0));
+		assertThat(testObject.admit(fresh, limits, Backpressure.NONE), contains(fresh.get(0)));
+		assertThat(testObject.admit(Collections.singletonList(minutes.get(1)), limits, Backpressure.NONE), contains(fresh.get(1)));
+		assertThat(testObject.getBacklog(), is(1));
+		assertThat(testObject.admit(Collections.singletonList(minutes.get(2)), limits, Backpressure.NONE), contains(minutes.get(2)));
+		assertThat(metrics.backlogSuperseded.sum(), is(2L));
+		assertThat(testObject.getBacklog(), is(0));
+	}
+
+	@Test
+	public void missedMinutesOfOneTickAllWait() {
+		when(trigger.isLive()).thenReturn(true);
+		AdmissionControl testObject = new AdmissionControl(100, metrics);
+		AdmissionLimits limits = new AdmissionLimits(1, Collections.emptyMap());
+		Job every = mock(Job.class);
+		when(every.getFullName()).thenReturn("every");
+		// what a tick emits for a line catching up on two missed minutes under MissedMinutePolicy.FIRE_ALL
+		List<FireRequest> caughtUp = new ArrayList<>();
+		for (int minute = 0; minute < 3; minute++) {
+			caughtUp.add(new FireRequest(trigger, every, null, null, null));
+		}
+
+		assertThat(testObject.admit(caughtUp, limits, Backpressure.NONE), contains(caughtUp.get(0)));
+		assertThat(testObject.getBacklog(), is(2));
+		// the next minute only takes the place of the newest of them
+		FireRequest next = new FireRequest(trigger, every, null, null, null);
+		assertThat(testObject.admit(Collections.singletonList(next), limits, Backpressure.NONE), contains(caughtUp.get(1)));
+		assertThat(testObject.admit(Collections.emptyList(), limits, Backpressure.NONE), contains(next));
+		assertThat(metrics.backlogSuperseded.sum(), is(1L));
+		assertThat(testObject.getBacklog(), is(0));
+	}
+
+	@Test
+	public void replacingFireKeepsTheAgeOfTheOlder() {
+		when(trigger.isLive()).thenReturn(true);
+		AdmissionControl testObject = new AdmissionControl(100, metrics);
+		AdmissionLimits limits = new AdmissionLimits(1, Collections.emptyMap());
+		Job every = mock(Job.class);
+		when(every.getFullName()).thenReturn("every");
+		List<FireRequest> fresh = requests("a");
+		fresh.add(new FireRequest(trigger, every, null, null, null));
+		long now = System.nanoTime();
+		assertThat(testObject.admit(fresh, limits, Backpressure.NONE, now), contains(fresh.get(0)));
+
+		// the newer fire is recent, but its line has waited since the first one
+		long late = now + TimeUnit.MINUTES.toNanos(AdmissionControl.MAX_WAIT_MINUTES + 1);
+		FireRequest newer = new FireRequest(trigger, every, null, null, null);
+		assertThat(testObject.admit(Collections.singletonList(newer), limits, Backpressure.NONE, late), is(empty()));
+		assertThat(metrics.backlogExpired.sum(), is(1L));
+	}
+
+	@Test
+	public void firesWaitingTooLongAreDropped() {
+		when(trigger.isLive()).thenReturn(true);
+		AdmissionControl testObject = new AdmissionControl(100, metrics);
+		AdmissionLimits limits = new AdmissionLimits(1, Collections.emptyMap());
+		List<FireRequest> fresh = requests("a", "b", "c");
+		long now = System.nanoTime();
+		assertThat(testObject.admit(fresh, limits, Backpressure.NONE, now), contains(fresh.get(0)));
+
+		long late = now + TimeUnit.MINUTES.toNanos(AdmissionControl.MAX_WAIT_MINUTES + 1);
+		assertThat(testObject.admit(Collections.emptyList(), limits, Backpressure.NONE, late), is(empty()));
+		assertThat(metrics.backlogExpired.sum(), is(2L));
+		assertThat(testObject.getBacklog(), is(0));
+	}
+
+	private List<FireRequest> requests(String... jobs) {
+		List<FireRequest> requests = new ArrayList<>();
+		for (String name : Arrays.asList(jobs)) {
+			Job job = mock(Job.class);
+			when(job.getFullName()).thenReturn(name);
+			requests.add(new FireRequest(trigger, job, null, null, null));
+		}
+		return requests;
+	}
+}
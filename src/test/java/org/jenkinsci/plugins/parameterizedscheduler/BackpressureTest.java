@@ -0,0 +1,106 @@
+package org.jenkinsci.plugins.parameterizedscheduler;
+
+import hudson.model.FreeStyleProject;
+import hudson.model.Label;
+import hudson.model.ParametersDefinitionProperty;
+import hudson.model.StringParameterDefinition;
+import hudson.model.Job;
+import org.jenkinsci.plugins.workflow.job.WorkflowJob;
+import org.junit.Rule;
+import org.junit.Test;
+import org.jvnet.hudson.test.JenkinsRule;
+
+import java.util.Collections;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.is;
+
+public class BackpressureTest {
+
+	@Rule
+	public JenkinsRule r = new JenkinsRule();
+
+	@Test
+	public void busyLabelDefersOrSkips() throws Exception {
+		FreeStyleProject p = r.createFreeStyleProject();
+		p.setAssignedLabel(Label.get("nowhere"));
+		ParameterizedTimerTrigger t = trigger(p);
+		AdmissionControl admission = new AdmissionControl(100, SchedulerMetrics.get());
+		long deferred = SchedulerMetrics.get().backpressureDeferred.sum();
+
+		List<FireRequest> fresh = t.prepare(t.getCronTabList().getCronTabs());
+		assertThat(admission.admit(fresh, AdmissionLimits.NONE, new Backpressure(BackpressurePolicy.DEFER, 0, 1)), is(empty()));
+		assertThat(admission.getBacklog(), is(1));
+		assertThat(SchedulerMetrics.get().backpressureDeferred.sum() - deferred, is(1L));
+		// the job's own policy wins over the controller-wide one
+		t.setBackpressure("NONE");
+		assertThat(admission.admit(Collections.emptyList(), AdmissionLimits.NONE, new Backpressure(BackpressurePolicy.DEFER, 0, 1)),
+				contains(fresh.get(0)));
+
+		t.setBackpressure("SKIP");
+		long skipped = SchedulerMetrics.get().backpressureSkipped.sum();
+		assertThat(admission.admit(t.prepare(t.getCronTabList().getCronTabs()), AdmissionLimits.NONE,
+				new Backpressure(BackpressurePolicy.NONE, 0, 1)), is(empty()));
+		assertThat(admission.getBacklog(), is(0));
+		assertThat(SchedulerMetrics.get().backpressureSkipped.sum() - skipped, is(1L));
+	}
+
+	@Test
+	public void idleExecutorsAreCountedDownWithinATick() throws Exception {
+		FreeStyleProject p = r.createFreeStyleProject();
+		p.setAssignedLabel(r.jenkins.getSelfLabel());
+		r.jenkins.setNumExecutors(1);
+		ParameterizedTimerTrigger t = trigger(p);
+		Backpressure pressure = new Backpressure(BackpressurePolicy.DEFER, 0, 1);
+		FireRequest request = t.prepare(t.getCronTabList().getCronTabs()).get(0);
+
+		assertThat(pressure.check(request), is(BackpressurePolicy.NONE));
+		pressure.admitted(request);
+		assertThat(pressure.check(request), is(BackpressurePolicy.DEFER));
+	}
+
+	@Test
+	public void burstOnlyGetsTheHeadroomLeft() throws Exception {
+		FreeStyleProject p = r.createFreeStyleProject();
+		p.addProperty(new ParametersDefinitionProperty(new StringParameterDefinition("foo", "lol")));
+		StringBuilder spec = new StringBuilder();
+		for (int i = 0; i < 5; i++) {
+			spec.append("* * * * *%foo=").append(i).append('\n');
+		}
+		ParameterizedTimerTrigger t = new ParameterizedTimerTrigger(spec.toString());
+		t.start(p, true);
+		r.jenkins.getQueue().schedule2(r.createFreeStyleProject(), 600);
+		AdmissionControl admission = new AdmissionControl(100, SchedulerMetrics.get());
+
+		// one queue slot left and nothing waiting yet, the burst must not go through on the first check alone
+		List<FireRequest> fresh = t.prepare(t.getCronTabList().getCronTabs());
+		assertThat(admission.admit(fresh, AdmissionLimits.NONE, new Backpressure(BackpressurePolicy.DEFER, 2, 0)), contains(fresh.get(0)));
+		assertThat(admission.getBacklog(), is(4));
+	}
+
+	@Test
+	public void pipelinesOnlyWatchTheQueue() throws Exception {
+		WorkflowJob p = r.createProject(WorkflowJob.class);
+		ParameterizedTimerTrigger t = trigger(p);
+		FireRequest request = t.prepare(t.getCronTabList().getCronTabs()).get(0);
+		r.jenkins.setNumExecutors(0);
+
+		assertThat(new Backpressure(BackpressurePolicy.DEFER, 0, 1).check(request), is(BackpressurePolicy.NONE));
+		Backpressure pressure = new Backpressure(BackpressurePolicy.DEFER, 1, 0);
+		assertThat(pressure.check(request), is(BackpressurePolicy.NONE));
+		pressure.admitted(request);
+		assertThat(pressure.check(request), is(BackpressurePolicy.DEFER));
+		r.jenkins.getQueue().schedule2(p, 600);
+		assertThat(new Backpressure(BackpressurePolicy.DEFER, 1, 0).check(request), is(BackpressurePolicy.DEFER));
+	}
+
+	private static ParameterizedTimerTrigger trigger(Job<?, ?> job) throws Exception {
+		job.addProperty(new ParametersDefinitionProperty(new StringParameterDefinition("foo", "lol")));
+		ParameterizedTimerTrigger t = new ParameterizedTimerTrigger("* * * * *%foo=bar");
+		t.start(job, true);
+		return t;
+	}
+}
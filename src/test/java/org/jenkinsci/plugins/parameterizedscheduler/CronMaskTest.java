@@ -0,0 +1,98 @@
+package org.jenkinsci.plugins.parameterizedscheduler;
+
+import hudson.scheduler.CronTab;
+import hudson.scheduler.Hash;
+import org.junit.Test;
+
+import java.util.Calendar;
+import java.util.GregorianCalendar;
+import java.util.Random;
+import java.util.TimeZone;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+/**
+ * Differential test of {@link CronMask} against {@link CronTab#check(Calendar)}.
+ */
+public class CronMaskTest {
+
+	private static final String[] SPECS = {
+			"* * * * *",
+			"H H * * *",
+			"H/15 * * * 1-5",
+			"H(0-29)/10 H(8-17) * * *",
+			"*/7 3-5 1,15 */2 0,7",
+			"0 0 29 2 *",
+			"30 2 * 3,10 0",
+			"0 12 31 * 7",
+			"@daily",
+			"@hourly",
+			"@midnight",
+	};
+	private static final String[] TIMEZONES = {null, "Australia/Sydney", "America/New_York", "Asia/Kathmandu"};
+
+	@Test
+	public void matchesLikeCronTab() {
+		Random random = new Random(42);
+		long start = TimeUnit.DAYS.toMillis(19_000);
+		for (String spec : SPECS) {
+			for (String timezone : TIMEZONES) {
+				CronTab cronTab = new CronTab(spec, 1, Hash.from("job/" + spec), timezone);
+				CronMask testObject = CronMask.compile(cronTab, new CronTab(spec, 1, Hash.from("job/" + spec), null));
+				assertNotNull(testObject);
+				for (int i = 0; i < 20_000; i++) {
+					String calendarTimezone = TIMEZONES[random.nextInt(TIMEZONES.length)];
+					Calendar calendar = calendarTimezone == null ? new GregorianCalendar() : new GregorianCalendar(TimeZone.getTimeZone(calendarTimezone));
+					calendar.setTimeInMillis(start + TimeUnit.MINUTES.toMillis(random.nextInt(3 * 366 * 24 * 60)));
+					assertEquals(spec + " in " + timezone + " at " + calendar.getTime(), cronTab.check(calendar), testObject.matches(calendar));
+				}
+			}
+		}
+	}
+
+	@Test
+	public void linesWithTimeZoneNeedTheirFieldsWithoutIt() {
+		assertNotNull(CronMask.compile(new CronTab("H H * * *", 1, Hash.from("job"), null)));
+		assertNull(CronMask.compile(new CronTab("H H * * *", 1, Hash.from("job"), "Asia/Kathmandu")));
+	}
+
+	@Test
+	public void impossibleDateHasNoMask() {
+		assertNull(CronMask.compile(new CronTab("0 0 31 2 *", 1, null, null)));
+	}
+
+	@Test
+	public void sameScheduleSharesOneMask() {
+		CronMask first = CronMask.compile(new CronTab("*/7 3-5 1,15 */2 *", 1, null, null));
+		assertSame(first, CronMask.compile(new CronTab("*/7 3-5 1,15 */2 *", 2, null, null)));
+	}
+
+	@Test
+	public void matchesLikeCronTabAcrossDaylightSavingChanges() {
+		// every minute of the days around the 2023 changes in New York and Sydney
+		long[] days = {
+				TimeUnit.DAYS.toMillis(19_425), // 2023-03-12
+				TimeUnit.DAYS.toMillis(19_663), // 2023-11-05
+				TimeUnit.DAYS.toMillis(19_452), // 2023-04-02
+				TimeUnit.DAYS.toMillis(19_634), // 2023-10-01
+		};
+		for (String spec : new String[] {"30 2 * * *", "H 1 * * *", "*/5 * * * *"}) {
+			for (String timezone : TIMEZONES) {
+				CronTab cronTab = new CronTab(spec, 1, Hash.from("job"), timezone);
+				CronMask testObject = CronMask.compile(cronTab, new CronTab(spec, 1, Hash.from("job"), null));
+				assertNotNull(testObject);
+				for (long day : days) {
+					for (long minute = -24 * 60; minute < 2 * 24 * 60; minute++) {
+						Calendar calendar = new GregorianCalendar();
+						calendar.setTimeInMillis(day + TimeUnit.MINUTES.toMillis(minute));
+						assertEquals(spec + " in " + timezone + " at " + calendar.getTime(), cronTab.check(calendar), testObject.matches(calendar));
+					}
+				}
+			}
+		}
+	}
+}
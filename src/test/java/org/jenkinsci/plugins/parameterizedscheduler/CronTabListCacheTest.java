@@ -0,0 +1,59 @@
+package org.jenkinsci.plugins.parameterizedscheduler;
+
+import org.junit.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertThrows;
+
+public class CronTabListCacheTest {
+
+	@Test
+	public void unhashedSpecIsSharedAcrossJobs() {
+		CronTabListCache cache = new CronTabListCache(10);
+		String spec = "TZ=Europe/Helsinki\n0 2 * * * % foo=bar";
+		assertThat(cache.get(spec, "a"), is(sameInstance(cache.get(spec, "b"))));
+		assertThat(cache.getSize(), is(1L));
+		assertThat(cache.getStats().hitCount(), is(1L));
+		assertThat(cache.getStats().missCount(), is(1L));
+	}
+
+	@Test
+	public void hashedSpecIsPerJob() {
+		CronTabListCache cache = new CronTabListCache(10);
+		String spec = "H H * * * % foo=bar";
+		assertThat(cache.get(spec, "a"), is(not(sameInstance(cache.get(spec, "b")))));
+		assertThat(cache.get(spec, "a"), is(sameInstance(cache.get(spec, "a"))));
+		assertThat(cache.getSize(), is(2L));
+	}
+
+	@Test
+	public void aliasIsHashed() {
+		assertThat(CronTabListCache.isHashed("@daily"), is(true));
+		assertThat(CronTabListCache.isHashed("# H\nTZ=Europe/Helsinki\n0 * * * * % HOST=x"), is(false));
+	}
+
+	@Test
+	public void invalidSpecIsNotCached() {
+		CronTabListCache cache = new CronTabListCache(10);
+		assertThrows(IllegalArgumentException.class, () -> cache.get("* * * *", null));
+		assertThat(cache.getSize(), is(0L));
+	}
+
+	@Test
+	public void leastRecentlyUsedIsEvicted() {
+		CronTabListCache cache = new CronTabListCache(1);
+		ParameterizedCronTabList first = cache.get("0 1 * * *", null);
+		cache.get("0 2 * * *", null);
+		assertThat(cache.get("0 1 * * *", null), is(not(sameInstance(first))));
+	}
+
+	@Test
+	public void compiledScheduleIsImmutable() {
+		ParameterizedCronTabList cronTabList = new CronTabListCache(1).get("0 1 * * * % foo=bar", null);
+		assertThrows(UnsupportedOperationException.class, () -> cronTabList.getCronTabs().clear());
+		assertThrows(UnsupportedOperationException.class, () -> cronTabList.getCronTabs().get(0).getParameterValues().clear());
+	}
+}
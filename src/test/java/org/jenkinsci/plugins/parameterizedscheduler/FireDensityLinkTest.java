@@ -0,0 +1,69 @@
+package org.jenkinsci.plugins.parameterizedscheduler;
+
+import hudson.model.FreeStyleProject;
+import hudson.model.Item;
+import hudson.model.ParametersDefinitionProperty;
+import hudson.model.StringParameterDefinition;
+import hudson.model.User;
+import hudson.security.ACL;
+import hudson.security.ACLContext;
+import jenkins.model.Jenkins;
+import net.sf.json.JSONObject;
+import org.junit.Rule;
+import org.junit.Test;
+import org.jvnet.hudson.test.JenkinsRule;
+import org.jvnet.hudson.test.MockAuthorizationStrategy;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+public class FireDensityLinkTest {
+
+	@Rule
+	public JenkinsRule r = new JenkinsRule();
+
+	@Test
+	public void json() throws Exception {
+		FreeStyleProject p = r.createFreeStyleProject();
+		p.addProperty(new ParametersDefinitionProperty(new StringParameterDefinition("foo", "lol")));
+		ParameterizedTimerTrigger t = new ParameterizedTimerTrigger("0 2 * * *%foo=bar\n30 * * * *%foo=baz");
+		t.start(p, true);
+		p.addTrigger(t);
+
+		JSONObject json = r.getJSON("manage/parameterized-scheduler-density/day/api/json").getJSONObject();
+		assertThat(json.getInt("minutes"), is(24 * 60));
+		assertThat(json.getInt("totalFires"), is(25));
+		assertThat(json.getJSONArray("fires").size(), is(24 * 60));
+	}
+
+	@Test
+	public void onlyReadableJobsAreCounted() throws Exception {
+		FreeStyleProject visible = r.createFreeStyleProject("visible");
+		FreeStyleProject hidden = r.createFreeStyleProject("hidden");
+		for (FreeStyleProject p : new FreeStyleProject[] {visible, hidden}) {
+			p.addProperty(new ParametersDefinitionProperty(new StringParameterDefinition("foo", "lol")));
+			ParameterizedTimerTrigger t = new ParameterizedTimerTrigger("0 2 * * *%foo=bar");
+			t.start(p, true);
+			p.addTrigger(t);
+		}
+		r.jenkins.setSecurityRealm(r.createDummySecurityRealm());
+		r.jenkins.setAuthorizationStrategy(new MockAuthorizationStrategy()
+				.grant(Jenkins.READ).everywhere().to("reader")
+				.grant(Item.READ).onItems(visible).to("reader"));
+
+		long now = TimeUnit.MILLISECONDS.toMinutes(System.currentTimeMillis());
+		try (ACLContext ignored = ACL.as(User.getById("reader", true))) {
+			FireDensity.Report report = FireDensity.of(TriggerRegistry.get().getTriggers()).compute(now, (int) TimeUnit.DAYS.toMinutes(1));
+			assertThat(report.getTotalFires(), is(1L));
+		}
+		FireDensity.Report report = FireDensity.of(TriggerRegistry.get().getTriggers()).compute(now, (int) TimeUnit.DAYS.toMinutes(1));
+		assertThat(report.getTotalFires(), is(2L));
+	}
+
+	@Test
+	public void page() throws Exception {
+		r.createWebClient().goTo("manage/parameterized-scheduler-density/week/");
+	}
+}
@@ -0,0 +1,84 @@
+package org.jenkinsci.plugins.parameterizedscheduler;
+
+import hudson.scheduler.Hash;
+import org.junit.Test;
+
+import java.util.TimeZone;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertEquals;
+
+public class FireDensityTest {
+
+	private static final String[] SPECS = {
+			"0 2 * * *",
+			"H H * * *",
+			"*/15 * * * 1-5",
+			"H(0-29)/10 H(8-17) * * *",
+			"30 2 * 3,10 0",
+			"@daily",
+	};
+	private static final TimeZone DEFAULT = TimeZone.getTimeZone("America/New_York");
+
+	@Test
+	public void expandsLikeCheck() {
+		FireDensity density = new FireDensity(DEFAULT);
+		int lines = 0;
+		for (String spec : SPECS) {
+			for (String timezone : new String[] {null, "Asia/Kathmandu", "Australia/Sydney"}) {
+				density.add("job" + lines, ParameterizedCronTab.create(spec, 1, Hash.from("job" + lines), timezone));
+				lines++;
+			}
+		}
+		// spans the 2023-11-05 change in New York
+		long start = TimeUnit.DAYS.toMinutes(19_662) + 17;
+		int minutes = (int) TimeUnit.DAYS.toMinutes(3);
+		FireDensity.Report report = density.compute(start, minutes);
+
+		int[] fires = report.getFires();
+		for (int i = 0; i < minutes; i++) {
+			TickSnapshot snapshot = new TickSnapshot(TimeUnit.MINUTES.toMillis(start + i), DEFAULT);
+			int expected = 0;
+			lines = 0;
+			for (String spec : SPECS) {
+				for (String timezone : new String[] {null, "Asia/Kathmandu", "Australia/Sydney"}) {
+					if (ParameterizedCronTab.create(spec, 1, Hash.from("job" + lines), timezone).check(snapshot)) {
+						expected++;
+					}
+					lines++;
+				}
+			}
+			assertEquals("minute " + i, expected, fires[i]);
+		}
+	}
+
+	@Test
+	public void reportsTheJobsBehindHotMinutes() {
+		FireDensity density = new FireDensity(DEFAULT);
+		for (int i = 0; i < FireDensity.HOT_THRESHOLD; i++) {
+			density.add("job" + i, ParameterizedCronTab.create("0 2 * * * % foo=" + i, 1, Hash.from("job" + i), null));
+		}
+		FireDensity.Report report = density.compute(TimeUnit.DAYS.toMinutes(19_000), (int) TimeUnit.DAYS.toMinutes(1));
+
+		assertThat(report.getPeak(), is(FireDensity.HOT_THRESHOLD));
+		assertThat(report.getHotMinutes(), hasSize(1));
+		FireDensity.HotMinute hot = report.getHotMinutes().get(0);
+		assertThat(hot.getLines(), hasSize(FireDensity.HOT_THRESHOLD));
+		assertThat(hot.getLines().get(0).getSchedule(), is("0 2 * * *"));
+		assertThat(hot.getLines().get(0).getSuggestion(), is("H 2 * * *"));
+	}
+
+	@Test
+	public void suggest() {
+		assertThat(FireDensity.suggest("0 2 * * *"), is("H 2 * * *"));
+		assertThat(FireDensity.suggest("*/15 * * * 1-5"), is("H/15 * * * 1-5"));
+		assertThat(FireDensity.suggest("H 2 * * *"), is(nullValue()));
+		assertThat(FireDensity.suggest("@daily"), is(nullValue()));
+		assertThat(FireDensity.suggest("* * * * *"), is(nullValue()));
+		assertThat(FireDensity.suggest(null), is(nullValue()));
+	}
+}
@@ -0,0 +1,71 @@
+package org.jenkinsci.plugins.parameterizedscheduler;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.is;
+
+public class HeapScheduleIndexTest {
+
+	private static ScheduledLine line(long minute) {
+		ScheduledLine line = new ScheduledLine(null, null);
+		line.minute = minute;
+		return line;
+	}
+
+	@Test
+	public void pollsOnlyDueLinesInOrder() {
+		HeapScheduleIndex testObject = new HeapScheduleIndex();
+		ScheduledLine late = line(30);
+		ScheduledLine early = line(10);
+		ScheduledLine now = line(20);
+		testObject.add(late);
+		testObject.add(early);
+		testObject.add(now);
+
+		List<ScheduledLine> due = new ArrayList<>();
+		testObject.pollDue(20, due::add);
+
+		assertThat(due, contains(early, now));
+		assertThat(testObject.size(), is(1));
+	}
+
+	@Test
+	public void removedLinesAreNotPolled() {
+		HeapScheduleIndex testObject = new HeapScheduleIndex();
+		ScheduledLine removed = line(10);
+		testObject.add(removed);
+		testObject.remove(removed);
+		assertThat(testObject.size(), is(0));
+
+		List<ScheduledLine> due = new ArrayList<>();
+		testObject.pollDue(10, due::add);
+		assertThat(due, is(empty()));
+		assertThat(testObject.size(), is(0));
+	}
+
+	@Test
+	public void compactsWhenMostLinesAreRemoved() {
+		HeapScheduleIndex testObject = new HeapScheduleIndex();
+		List<ScheduledLine> lines = new ArrayList<>();
+		for (int i = 0; i < 200; i++) {
+			ScheduledLine line = line(1000 + i);
+			lines.add(line);
+			testObject.add(line);
+		}
+		for (int i = 0; i < 150; i++) {
+			testObject.remove(lines.get(i));
+		}
+		assertThat(testObject.size(), is(50));
+
+		List<ScheduledLine> due = new ArrayList<>();
+		testObject.pollDue(Long.MAX_VALUE, due::add);
+		assertThat(due.size(), is(50));
+		assertThat(testObject.size(), is(0));
+	}
+}
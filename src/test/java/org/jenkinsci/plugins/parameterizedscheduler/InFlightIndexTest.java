@@ -0,0 +1,144 @@
+package org.jenkinsci.plugins.parameterizedscheduler;
+
+import hudson.Launcher;
+import hudson.model.AbstractBuild;
+import hudson.model.BuildListener;
+import hudson.model.Cause;
+import hudson.model.CauseAction;
+import hudson.model.FreeStyleBuild;
+import hudson.model.FreeStyleProject;
+import hudson.model.Label;
+import hudson.model.ParametersDefinitionProperty;
+import hudson.model.Queue;
+import hudson.model.Run;
+import hudson.model.StringParameterDefinition;
+import hudson.model.queue.WorkUnitContext;
+import hudson.util.OneShotEvent;
+import org.junit.Rule;
+import org.junit.Test;
+import org.jvnet.hudson.test.JenkinsRule;
+import org.jvnet.hudson.test.TestBuilder;
+
+import java.util.Calendar;
+import java.util.Collections;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class InFlightIndexTest {
+
+	@Rule
+	public JenkinsRule r = new JenkinsRule();
+
+	@Test
+	public void skipIfQueued() throws Exception {
+		FreeStyleProject p = project("* * * * * @skipIfQueued %foo=bar");
+		p.setAssignedLabel(Label.get("nowhere"));
+		ParameterizedTimerTrigger t = trigger(p);
+
+		fire(t);
+		assertThat(r.jenkins.getQueue().getItems().length, is(1));
+		assertThat(InFlightIndex.get().isQueued(p, "{foo=bar}"), is(true));
+		long skipped = SchedulerMetrics.get().overlapSkipped.sum();
+		fire(t);
+		assertThat(SchedulerMetrics.get().overlapSkipped.sum() - skipped, is(1L));
+
+		r.jenkins.getQueue().clear();
+		assertThat(InFlightIndex.get().isQueued(p, "{foo=bar}"), is(false));
+	}
+
+	@Test
+	public void supersedeQueued() throws Exception {
+		FreeStyleProject p = project("* * * * * @supersedeQueued %foo=bar");
+		p.setAssignedLabel(Label.get("nowhere"));
+		ParameterizedTimerTrigger t = trigger(p);
+
+		fire(t);
+		Queue.Item first = r.jenkins.getQueue().getItem(p);
+		long superseded = SchedulerMetrics.get().overlapSuperseded.sum();
+		fire(t);
+		assertThat(SchedulerMetrics.get().overlapSuperseded.sum() - superseded, is(1L));
+		assertThat(r.jenkins.getQueue().getItems().length, is(1));
+		assertThat(r.jenkins.getQueue().getItem(p).getId(), is(not(first.getId())));
+	}
+
+	@Test
+	public void skipIfRunning() throws Exception {
+		FreeStyleProject p = project("* * * * * @skipIfRunning %foo=bar");
+		OneShotEvent started = new OneShotEvent();
+		OneShotEvent finish = new OneShotEvent();
+		p.getBuildersList().add(new TestBuilder() {
+			@Override
+			public boolean perform(AbstractBuild<?, ?> build, Launcher launcher, BuildListener listener) throws InterruptedException {
+				started.signal();
+				finish.block();
+				return true;
+			}
+		});
+		p.setConcurrentBuild(true);
+		ParameterizedTimerTrigger t = trigger(p);
+
+		fire(t);
+		started.block();
+		assertThat(InFlightIndex.get().isRunning(p, "{foo=bar}"), is(true));
+		long skipped = SchedulerMetrics.get().overlapSkipped.sum();
+		fire(t);
+		assertThat(SchedulerMetrics.get().overlapSkipped.sum() - skipped, is(1L));
+
+		finish.signal();
+		FreeStyleBuild build = p.getBuildByNumber(1);
+		r.waitForCompletion(build);
+		r.waitUntilNoActivity();
+		assertThat(InFlightIndex.get().isRunning(p, "{foo=bar}"), is(false));
+		assertThat(p.getLastBuild().getNumber(), is(1));
+	}
+
+	@Test
+	public void itemCountsAsQueuedUntilItsRunStarts() throws Exception {
+		FreeStyleProject p = project("* * * * * @skipIfQueued %foo=bar");
+		InFlightIndex index = new InFlightIndex();
+		List<Cause> causes = Collections.singletonList(new ParameterizedTimerTriggerCause(Collections.singletonMap("foo", "bar")));
+		Queue.WaitingItem waiting = new Queue.WaitingItem(Calendar.getInstance(), p, Collections.singletonList(new CauseAction(causes)));
+		index.queued(waiting);
+
+		// handed to an executor, the run is not there yet
+		index.left(new Queue.LeftItem(new WorkUnitContext(new Queue.BuildableItem(waiting))));
+		assertThat(index.isQueued(p, "{foo=bar}"), is(true));
+
+		Run<?, ?> run = mock(Run.class);
+		when(run.getParent()).thenAnswer(invocation -> p);
+		when(run.getCauses()).thenReturn(causes);
+		when(run.getQueueId()).thenReturn(waiting.getId());
+		when(run.getNumber()).thenReturn(1);
+		index.started(run);
+		assertThat(index.isQueued(p, "{foo=bar}"), is(false));
+		assertThat(index.isRunning(p, "{foo=bar}"), is(true));
+
+		Queue.WaitingItem cancelled = new Queue.WaitingItem(Calendar.getInstance(), p, Collections.singletonList(new CauseAction(causes)));
+		index.queued(cancelled);
+		index.left(new Queue.LeftItem(cancelled));
+		assertThat(index.isQueued(p, "{foo=bar}"), is(false));
+	}
+
+	private FreeStyleProject project(String spec) throws Exception {
+		FreeStyleProject p = r.createFreeStyleProject();
+		p.addProperty(new ParametersDefinitionProperty(new StringParameterDefinition("foo", "lol")));
+		p.addTrigger(new ParameterizedTimerTrigger(spec));
+		return p;
+	}
+
+	private static ParameterizedTimerTrigger trigger(FreeStyleProject p) {
+		ParameterizedTimerTrigger t = p.getTrigger(ParameterizedTimerTrigger.class);
+		t.start(p, true);
+		return t;
+	}
+
+	private static void fire(ParameterizedTimerTrigger t) throws Exception {
+		BuildSubmitter.get().submitAll(t.prepare(t.getCronTabList().getCronTabs()));
+		BuildSubmitter.get().drain();
+	}
+}
@@ -0,0 +1,104 @@
+package org.jenkinsci.plugins.parameterizedscheduler;
+
+import com.google.common.base.Splitter;
+import hudson.scheduler.CronTab;
+import hudson.scheduler.CronTabList;
+import hudson.scheduler.Hash;
+import org.junit.Test;
+import org.netbeans.insane.scanner.CountingVisitor;
+import org.netbeans.insane.scanner.ScannerUtils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThan;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
+
+public class ParameterMapTest {
+
+	@Test
+	public void behavesLikeAMap() {
+		Map<String, String> map = ParameterMap.of(new String[] {"b", "1", "a", "2"}, 2);
+		Map<String, String> expected = new LinkedHashMap<>();
+		expected.put("b", "1");
+		expected.put("a", "2");
+
+		assertThat(map, is(expected));
+		assertThat(map.hashCode(), is(expected.hashCode()));
+		assertThat(map.get("a"), is("2"));
+		assertThat(map.get("c"), is(nullValue()));
+		assertThat(map.containsKey("b"), is(true));
+		assertThat(new ArrayList<>(map.keySet()), contains("b", "a"));
+	}
+
+	@Test(expected = UnsupportedOperationException.class)
+	public void isReadOnly() {
+		ParameterMap.of(new String[] {"a", "1"}, 1).put("b", "2");
+	}
+
+	@Test
+	public void stringsAreInterned() {
+		Map<String, String> first = ParameterMap.of(new String[] {new String("name"), new String("value")}, 1);
+		Map<String, String> second = ParameterMap.copyOf(Collections.singletonMap(new String("name"), new String("value")));
+		assertThat(second.keySet().iterator().next(), is(sameInstance(first.keySet().iterator().next())));
+		assertThat(second.get("name"), is(sameInstance(first.get("name"))));
+	}
+
+	@Test
+	public void wideParameterSetsUseARegularMap() {
+		String[] keysAndValues = new String[2 * (ParameterMap.MAX_SIZE + 1)];
+		for (int i = 0; i < keysAndValues.length; i++) {
+			keysAndValues[i] = "s" + i;
+		}
+		assertThat(ParameterMap.of(keysAndValues, ParameterMap.MAX_SIZE + 1), is(not(instanceOf(ParameterMap.class))));
+	}
+
+	/**
+	 * Compares the heap a templated schedule line takes across many jobs against what the same lines took when each
+	 * one held a {@link CronTabList} wrapped {@link CronTab} and a map of its own.
+	 */
+	@Test
+	public void footprintPerLine() throws Exception {
+		List<String> lines = Arrays.asList(
+				"0 2 * * * %env=int;region=eu-west-1;flavor=large",
+				"30 */4 * * 1-5 %env=qa;region=eu-west-1;flavor=small",
+				"15 6 1 * * %env=prod;region=us-east-1;flavor=large");
+		int jobs = 500;
+
+		List<Object> before = new ArrayList<>();
+		List<Object> after = new ArrayList<>();
+		for (int job = 0; job < jobs; job++) {
+			Hash hash = Hash.from("folder/job" + job);
+			for (int n = 0; n < lines.size(); n++) {
+				String line = lines.get(n);
+				int percent = line.indexOf('%');
+				CronTab cronTab = new CronTab(line.substring(0, percent).trim(), n + 1, hash, null);
+				Map<String, String> parameters = new HashMap<>(Splitter.on(";").trimResults()
+						.withKeyValueSeparator(Splitter.on("=").limit(2)).split(line.substring(percent + 1)));
+				before.add(new Object[] {new CronTabList(Collections.singletonList(cronTab)), parameters});
+				after.add(ParameterizedCronTab.create(line, n + 1, hash, null));
+			}
+		}
+
+		long bytesBefore = heapSize(before) / before.size();
+		long bytesAfter = heapSize(after) / after.size();
+		assertThat("bytes per schedule line, " + bytesBefore + " before", bytesAfter * 2, is(lessThan(bytesBefore)));
+	}
+
+	private static long heapSize(Object root) throws Exception {
+		CountingVisitor visitor = new CountingVisitor();
+		ScannerUtils.scan(ScannerUtils.skipNonStrongReferencesFilter(), visitor, Collections.singleton(root), false);
+		return visitor.getTotalSize();
+	}
+}
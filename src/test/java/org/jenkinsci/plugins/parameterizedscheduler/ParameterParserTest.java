@@ -11,11 +11,14 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
 @RunWith(MockitoJUnitRunner.class)
 public class ParameterParserTest {
@@ -169,4 +172,118 @@ public class ParameterParserTest {
 		assertNull(testObject.checkSanity("* * * * *%percent=10%;name=value", mockParametersDefinitionProperty));
 	}
 
+	@Test
+	public void test_QuotedValues() {
+		ParameterParser testObject = new ParameterParser();
+		Map<String, String> expected = new LinkedHashMap<>();
+		expected.put("list", "a;b");
+		expected.put("padded", "  x ");
+		expected.put("path", "C:\\temp");
+		expected.put("escaped", "say \"hi\" \\o/");
+		assertEquals(expected, testObject.parse("list=\"a;b\"; padded='  x '; path=C:\\temp; escaped=\"say \\\"hi\\\" \\\\o/\"", 0, true));
+	}
+
+	@Test
+	public void test_NamesAndValuesAreTrimmedWhenQuoted() {
+		ParameterParser testObject = new ParameterParser();
+		assertEquals(Collections.singletonMap("name", "some value"), testObject.parse("  name =  some value ; ", 0, true));
+	}
+
+	@Test
+	public void test_OnlyPairsAreTrimmedByDefault() {
+		// as the Splitter based parser did, existing specifications must keep passing the same values
+		ParameterParser testObject = new ParameterParser();
+		Map<String, String> expected = new LinkedHashMap<>();
+		expected.put("name ", "  some value");
+		expected.put("a", " x");
+		assertEquals(expected, testObject.parse("  name =  some value ;a= x "));
+	}
+
+	@Test
+	public void test_QuotesAreKeptByDefault() {
+		ParameterParser testObject = new ParameterParser();
+		Map<String, String> expected = new LinkedHashMap<>();
+		expected.put("single", "'x'");
+		expected.put("double", "\"y\"");
+		expected.put("escaped", "\"a\\\"b\"");
+		assertEquals(expected, testObject.parse("single='x'; double=\"y\"; escaped=\"a\\\"b\""));
+		assertParseError(testObject, "list=\"a;b\"", Messages.ParameterParser_MissingSeparator("b\"", 9));
+	}
+
+	@Test
+	public void checkSanity_QuotedLine() {
+		ParameterParser testObject = new ParameterParser();
+		Mockito.when(mockParametersDefinitionProperty.getParameterDefinitionNames()).thenReturn(Collections.singletonList("list"));
+		assertNull(testObject.checkSanity("* * * * * @quoted %list=\"a;b\"", mockParametersDefinitionProperty));
+		assertEquals(Messages.ParameterParser_MissingSeparator("b\"", 20),
+				testObject.checkSanity("* * * * * %list=\"a;b\"", mockParametersDefinitionProperty));
+	}
+
+	@Test
+	public void test_OrderIsKept() {
+		ParameterParser testObject = new ParameterParser();
+		assertEquals(Arrays.asList("b", "a", "c"), new ArrayList<>(testObject.parse("b=1;a=2;c=3").keySet()));
+	}
+
+	@Test
+	public void test_ErrorsNameTheColumn() {
+		ParameterParser testObject = new ParameterParser();
+		assertParseError(testObject, "name=value;;", Messages.ParameterParser_EmptyPair(12));
+		assertParseError(testObject, "name=value;other", Messages.ParameterParser_MissingSeparator("other", 12));
+		assertParseError(testObject, "a=1; =2", Messages.ParameterParser_MissingName(6));
+		assertParseError(testObject, "a=1;a=2", Messages.ParameterParser_DuplicateKey("a", 5));
+	}
+
+	@Test
+	public void test_ErrorsNameTheColumnOfTheWholeLine() {
+		ParameterParser testObject = new ParameterParser();
+		String line = "H 3 * * * % a=1;;";
+		try {
+			testObject.parse(line, line.indexOf('%') + 1, false);
+			fail("expected an error for " + line);
+		} catch (IllegalArgumentException e) {
+			assertEquals(Messages.ParameterParser_EmptyPair(17), e.getMessage());
+		}
+		assertEquals(Messages.ParameterParser_EmptyPair(17), testObject.checkSanity("  " + line, mockParametersDefinitionProperty));
+	}
+
+	@Test
+	public void test_QuotedValuesLoseTheirQuotes() {
+		ParameterParser testObject = new ParameterParser();
+		Map<String, String> expected = new LinkedHashMap<>();
+		expected.put("single", "x");
+		expected.put("double", "y");
+		assertEquals(expected, testObject.parse("single='x'; double=\"y\"", 0, true));
+	}
+
+	@Test
+	public void test_ValuesOnlyStartingWithAQuoteAreTakenAsWritten() {
+		ParameterParser testObject = new ParameterParser();
+		Map<String, String> expected = new LinkedHashMap<>();
+		expected.put("open", "\"open");
+		expected.put("apostrophe", "'it's'");
+		expected.put("after", "'x' y");
+		expected.put("path", "\"C:\\temp\\new\" folder");
+		assertEquals(expected, testObject.parse("open=\"open; apostrophe='it's'; after='x' y; path=\"C:\\temp\\new\" folder", 0, true));
+	}
+
+	@Test
+	public void test_OnlyQuotesAndBackslashesAreEscaped() {
+		ParameterParser testObject = new ParameterParser();
+		assertEquals(Collections.singletonMap("path", "C:\\temp\\new"), testObject.parse("path=\"C:\\temp\\new\"", 0, true));
+	}
+
+	@Test(expected = UnsupportedOperationException.class)
+	public void test_ResultIsReadOnly() {
+		new ParameterParser().parse("name=value").put("other", "value");
+	}
+
+	private static void assertParseError(ParameterParser testObject, String input, String message) {
+		try {
+			testObject.parse(input);
+			fail("expected an error for " + input);
+		} catch (IllegalArgumentException e) {
+			assertEquals(message, e.getMessage());
+		}
+	}
 }
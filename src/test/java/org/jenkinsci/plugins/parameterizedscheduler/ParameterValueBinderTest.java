@@ -0,0 +1,83 @@
+package org.jenkinsci.plugins.parameterizedscheduler;
+
+import hudson.model.BooleanParameterDefinition;
+import hudson.model.ChoiceParameterDefinition;
+import hudson.model.ParameterDefinition;
+import hudson.model.ParameterValue;
+import hudson.model.PasswordParameterDefinition;
+import hudson.model.StringParameterDefinition;
+import hudson.model.StringParameterValue;
+import hudson.model.TextParameterDefinition;
+import net.sf.json.JSONObject;
+import org.junit.Rule;
+import org.junit.Test;
+import org.jvnet.hudson.test.JenkinsRule;
+import org.kohsuke.stapler.StaplerRequest;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThrows;
+
+public class ParameterValueBinderTest {
+
+	@Rule
+	public JenkinsRule r = new JenkinsRule();
+
+	@Test
+	public void coreTypesBindLikeTheStaplerStub() {
+		List<ParameterDefinition> definitions = Arrays.asList(
+				new StringParameterDefinition("string", "default", null, true),
+				new BooleanParameterDefinition("boolean", false, null),
+				new ChoiceParameterDefinition("choice", new String[] {"a", "value"}, null),
+				new TextParameterDefinition("text", "default", null),
+				new PasswordParameterDefinition("password", "default", null));
+		for (String text : Arrays.asList("value", " value ", "true")) {
+			for (ParameterDefinition definition : definitions) {
+				if (definition instanceof ChoiceParameterDefinition && !text.equals("value")) {
+					continue;
+				}
+				assertThat(definition.getName(), ParameterValueBinder.bindValue(definition, text),
+						is(definition.createValue(new ParameterizedStaplerRequest(text))));
+			}
+		}
+	}
+
+	@Test
+	public void simpleDefinitionsUseTheFastPath() {
+		assertThat(new SimpleParameterValueBinder().isApplicable(new StringParameterDefinition("a", "b")), is(true));
+	}
+
+	@Test
+	public void invalidChoiceIsRejected() {
+		ChoiceParameterDefinition definition = new ChoiceParameterDefinition("choice", new String[] {"a", "b"}, null);
+		assertThrows(IllegalArgumentException.class, () -> ParameterValueBinder.bindValue(definition, "c"));
+	}
+
+	@Test
+	public void otherDefinitionsFallBackToTheStaplerStub() {
+		ParameterDefinition definition = new NonSimpleParameterDefinition("other");
+		assertThat(new SimpleParameterValueBinder().isApplicable(definition), is(false));
+		assertThat(ParameterValueBinder.bindValue(definition, "value"), is(instanceOf(StringParameterValue.class)));
+	}
+
+	private static class NonSimpleParameterDefinition extends ParameterDefinition {
+
+		NonSimpleParameterDefinition(String name) {
+			super(name);
+		}
+
+		@Override
+		public ParameterValue createValue(StaplerRequest req, JSONObject jo) {
+			return null;
+		}
+
+		@Override
+		public ParameterValue createValue(StaplerRequest req) {
+			return new StringParameterValue(getName(), req.getParameter(getName()));
+		}
+	}
+}
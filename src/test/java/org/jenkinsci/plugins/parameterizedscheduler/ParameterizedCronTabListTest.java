@@ -149,4 +149,11 @@ public class ParameterizedCronTabListTest {
 		ParameterizedCronTabList.create("TZ=Dune/Arrakis \n * * * * *%foo=bar");
 	}
 
+	@Test
+	public void validateReportsTheSameSanityWarningAsCreate() {
+		String spec = "0 3 * * *%foo=bar\n* * * * *%bar=bar";
+		assertEquals(ParameterizedCronTabList.create(spec).checkSanity(), ParameterizedCronTabList.validate(spec));
+		assertNull(ParameterizedCronTabList.validate("H 3 * * *%foo=bar"));
+	}
+
 }
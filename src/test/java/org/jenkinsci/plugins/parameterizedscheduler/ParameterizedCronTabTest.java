@@ -13,6 +13,7 @@ import hudson.scheduler.Hash;
 
 import com.google.common.collect.Maps;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThrows;
 import static org.junit.Assert.assertTrue;
 
 public class ParameterizedCronTabTest {
@@ -62,4 +63,48 @@ public class ParameterizedCronTabTest {
 		assertEquals(parameters, parameterizedCronTab.getParameterValues());
 	}
 
+	@Test
+	public void explicit_delay() throws Exception {
+		ParameterizedCronTab parameterizedCronTab = ParameterizedCronTab.create("0 2 * * * @+30s %one=onevalue", 1, null, null);
+		assertEquals(30, parameterizedCronTab.getDelay());
+		assertEquals("0 2 * * *", parameterizedCronTab.getCronSpec());
+		assertEquals("onevalue", parameterizedCronTab.getParameterValues().get("one"));
+
+		parameterizedCronTab = ParameterizedCronTab.create("@daily @+5s", 1, Hash.from("job"), null);
+		assertEquals(5, parameterizedCronTab.getDelay());
+		assertEquals("@daily", parameterizedCronTab.getCronSpec());
+
+		assertEquals(LineOptions.NO_DELAY, ParameterizedCronTab.create("0 2 * * *", 1, null, null).getDelay());
+	}
+
+	@Test
+	public void explicit_delay_stays_within_the_minute() throws Exception {
+		assertThrows(IllegalArgumentException.class, () -> ParameterizedCronTab.create("0 2 * * * @+60s", 1, null, null));
+		assertThrows(IllegalArgumentException.class, () -> ParameterizedCronTab.create("0 2 * * * @+5s @+6s", 1, null, null));
+		assertThrows(IllegalArgumentException.class, () -> ParameterizedCronTab.validate("0 2 * * * @+60s %one=1", 1, null));
+	}
+
+	@Test
+	public void overlap_policy() throws Exception {
+		ParameterizedCronTab parameterizedCronTab = ParameterizedCronTab.create("H/5 * * * * @skipIfRunning @+10s %one=onevalue", 1, Hash.from("job"), null);
+		assertEquals(OverlapPolicy.SKIP_IF_RUNNING, parameterizedCronTab.getOverlapPolicy());
+		assertEquals(10, parameterizedCronTab.getDelay());
+		assertEquals("H/5 * * * *", parameterizedCronTab.getCronSpec());
+
+		assertEquals(OverlapPolicy.ALLOW, ParameterizedCronTab.create("H/5 * * * *", 1, Hash.from("job"), null).getOverlapPolicy());
+		assertThrows(IllegalArgumentException.class, () -> ParameterizedCronTab.create("H/5 * * * * @skipIfQueued @allow", 1, null, null));
+		assertThrows(IllegalArgumentException.class, () -> ParameterizedCronTab.create("H/5 * * * * @skipIfBusy", 1, null, null));
+	}
+
+	@Test
+	public void quoted_parameters() throws Exception {
+		ParameterizedCronTab parameterizedCronTab = ParameterizedCronTab.create("0 2 * * * @quoted @skipIfRunning %list=\"a;b\"; one= 'x '", 1, null, null);
+		assertEquals("a;b", parameterizedCronTab.getParameterValues().get("list"));
+		assertEquals("x ", parameterizedCronTab.getParameterValues().get("one"));
+		assertEquals("0 2 * * *", parameterizedCronTab.getCronSpec());
+
+		assertEquals("'x'", ParameterizedCronTab.create("0 2 * * * %one='x'", 1, null, null).getParameterValues().get("one"));
+		assertThrows(IllegalArgumentException.class, () -> ParameterizedCronTab.create("0 2 * * * @quoted @quoted %one=1", 1, null, null));
+	}
+
 }
@@ -0,0 +1,41 @@
+package org.jenkinsci.plugins.parameterizedscheduler;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.jvnet.hudson.test.JenkinsRule;
+
+import java.util.Map;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThrows;
+
+public class ParameterizedSchedulerConfigurationTest {
+
+	@Rule
+	public JenkinsRule r = new JenkinsRule();
+
+	@Test
+	public void roundTrip() throws Exception {
+		ParameterizedSchedulerConfiguration config = ParameterizedSchedulerConfiguration.get();
+		config.setMaxFiresPerTick(50);
+		config.setFolderLimits("team-a=10\nteam-b/nightly=5");
+		r.configRoundtrip();
+
+		assertThat(config.getMaxFiresPerTick(), is(50));
+		AdmissionLimits limits = config.getLimits();
+		assertThat(limits.getPerTick(), is(50));
+		assertThat(limits.folderOf("team-b/nightly/job"), is("team-b/nightly"));
+		assertThat(limits.getLimit("team-a"), is(10));
+	}
+
+	@Test
+	public void parseFolderLimits() {
+		Map<String, Integer> limits = ParameterizedSchedulerConfiguration.parseFolderLimits("# comment\n a/b/ = 3 \n\nc=1");
+		assertThat(limits.get("a/b"), is(3));
+		assertThat(limits.get("c"), is(1));
+		assertThrows(IllegalArgumentException.class, () -> ParameterizedSchedulerConfiguration.parseFolderLimits("a"));
+		assertThrows(IllegalArgumentException.class, () -> ParameterizedSchedulerConfiguration.parseFolderLimits("a=0"));
+		assertThrows(IllegalArgumentException.class, () -> ParameterizedSchedulerConfiguration.parseFolderLimits("=5"));
+	}
+}
@@ -29,6 +29,7 @@ import static org.hamcrest.Matchers.is;
 import static org.hamcrest.Matchers.not;
 import static org.hamcrest.Matchers.notNullValue;
 import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
 
 public class ParameterizedSchedulerTest {
 
@@ -44,6 +45,7 @@ public class ParameterizedSchedulerTest {
         t.start(p, true);
         p.addTrigger(t);
         new Cron().doRun();
+        BuildSubmitter.get().drain();
         assertThat(p.isInQueue(), is(true));
         r.waitUntilNoActivity();
         assertThat(p.getLastCompletedBuild(), is(notNullValue()));
@@ -64,6 +66,7 @@ public class ParameterizedSchedulerTest {
         t.start(p, true);
         p.addTrigger(t);
         new Cron().doRun();
+        BuildSubmitter.get().drain();
         r.waitUntilNoActivity();
         assertThat(p.getLastCompletedBuild(), is(not(wfr)));
         List<String> values = new ArrayList<>();
@@ -86,6 +89,7 @@ public class ParameterizedSchedulerTest {
                 "])", true));
         WorkflowRun wfr = r.buildAndAssertSuccess(p);
         new Cron().doRun();
+        BuildSubmitter.get().drain();
         r.waitUntilNoActivity();
         assertThat(p.getLastCompletedBuild(), is(not(wfr)));
         List<String> values = new ArrayList<>();
@@ -116,6 +120,7 @@ public class ParameterizedSchedulerTest {
                 "}", true));
         WorkflowRun wfr = r.buildAndAssertSuccess(p);
         new Cron().doRun();
+        BuildSubmitter.get().drain();
         r.waitUntilNoActivity();
         assertThat(p.getLastCompletedBuild(), is(not(wfr)));
         List<String> values = new ArrayList<>();
@@ -135,12 +140,74 @@ public class ParameterizedSchedulerTest {
         t.start(p, true);
         p.addTrigger(t);
         new Cron().doRun();
+        BuildSubmitter.get().drain();
         assertThat(p.isInQueue(), is(true));
         r.waitUntilNoActivity();
         // Build should complete successfully but will not have any value
         assertThat(p.getLastCompletedBuild(), is(notNullValue()));
     }
 
+    @Test
+    public void staticParameterValuesAreCachedUntilTheDefinitionsChange() throws Exception {
+        FreeStyleProject p = r.createFreeStyleProject();
+        p.addProperty(new ParametersDefinitionProperty(new StringParameterDefinition("foo", "lol"), new StringParameterDefinition("bar", "one")));
+        ParameterizedTimerTrigger t = new ParameterizedTimerTrigger("* * * * *%foo=test");
+        t.start(p, true);
+        List<ParameterizedCronTab> lines = t.getCronTabList().getCronTabs();
+        ParameterValue first = t.prepare(lines).get(0).parametersAction.getParameter("bar");
+        assertThat(t.prepare(lines).get(0).parametersAction.getParameter("bar"), is(sameInstance(first)));
+
+        p.removeProperty(ParametersDefinitionProperty.class);
+        p.addProperty(new ParametersDefinitionProperty(new StringParameterDefinition("foo", "lol"), new StringParameterDefinition("bar", "two")));
+        assertThat(t.prepare(lines).get(0).parametersAction.getParameter("bar").getValue(), is("two"));
+    }
+
+    @Test
+    public void repeatedFiresShareTheCauseButNotTheActions() throws Exception {
+        FreeStyleProject p = r.createFreeStyleProject();
+        p.addProperty(new ParametersDefinitionProperty(new StringParameterDefinition("foo", "lol")));
+        ParameterizedTimerTrigger t = new ParameterizedTimerTrigger("* * * * *%foo=test");
+        t.start(p, true);
+        List<ParameterizedCronTab> lines = t.getCronTabList().getCronTabs();
+        FireRequest first = t.prepare(lines).get(0);
+        FireRequest second = t.prepare(lines).get(0);
+        assertThat(second.causeAction, is(not(sameInstance(first.causeAction))));
+        assertThat(second.parametersAction, is(not(sameInstance(first.parametersAction))));
+        assertThat(second.causeAction.getCauses().get(0), is(sameInstance(first.causeAction.getCauses().get(0))));
+    }
+
+    @Test
+    public void firesAreSpreadAcrossTheMinuteWhenEnabled() throws Exception {
+        FreeStyleProject p = r.createFreeStyleProject();
+        p.addProperty(new ParametersDefinitionProperty(new StringParameterDefinition("foo", "lol")));
+        ParameterizedTimerTrigger t = new ParameterizedTimerTrigger("* * * * *%foo=test\n* * * * * @+45s %foo=late");
+        t.start(p, true);
+        List<ParameterizedCronTab> lines = t.getCronTabList().getCronTabs();
+        assertThat(t.prepare(lines).get(0).offset, is(0));
+        assertThat(t.prepare(lines).get(1).offset, is(45));
+
+        ParameterizedSchedulerConfiguration.get().setSpreadWithinMinute(true);
+        int offset = t.prepare(lines).get(0).offset;
+        assertThat(offset, is(ParameterizedTimerTrigger.spreadOffset(p, lines.get(0))));
+        assertThat(t.prepare(lines).get(0).offset, is(offset));
+        assertThat(t.prepare(lines).get(1).offset, is(45));
+        // the quiet period counts down to the offset and never reaches into the next minute
+        FireRequest request = t.prepare(lines).get(1);
+        assertThat(request.quietPeriod(60_000L * 100), is(45));
+        assertThat(request.quietPeriod(60_000L * 100 + 50_000), is(0));
+    }
+
+    @Test
+    public void otherParameterTypesAreNotCached() throws Exception {
+        FreeStyleProject p = r.createFreeStyleProject();
+        p.addProperty(new ParametersDefinitionProperty(new NullParameterDefinition("foo"), new StringParameterDefinition("bar", "one")));
+        ParameterizedTimerTrigger t = new ParameterizedTimerTrigger("* * * * *%foo=test");
+        t.start(p, true);
+        List<ParameterizedCronTab> lines = t.getCronTabList().getCronTabs();
+        ParameterValue first = t.prepare(lines).get(0).parametersAction.getParameter("bar");
+        assertThat(t.prepare(lines).get(0).parametersAction.getParameter("bar"), is(not(sameInstance(first))));
+    }
+
     private static class NullParameterDefinition extends ParameterDefinition {
 
         public NullParameterDefinition(@NonNull String name) {
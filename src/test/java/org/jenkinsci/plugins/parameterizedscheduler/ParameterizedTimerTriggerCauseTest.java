@@ -1,6 +1,7 @@
 package org.jenkinsci.plugins.parameterizedscheduler;
 
 import hudson.triggers.TimerTrigger;
+import hudson.util.XStream2;
 import org.junit.Test;
 
 import java.util.Collections;
@@ -8,7 +9,10 @@ import java.util.HashMap;
 import java.util.Map;
 
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.not;
 import static org.junit.Assert.assertEquals;
 
 public class ParameterizedTimerTriggerCauseTest {
@@ -28,4 +32,33 @@ public class ParameterizedTimerTriggerCauseTest {
 		assertThat(new ParameterizedTimerTriggerCause(Collections.singletonMap("a", "b")),
 				instanceOf(TimerTrigger.TimerTriggerCause.class));
 	}
+
+	@Test
+	public void recordsOnlyTheParameters() {
+		String xml = new XStream2().toXML(new ParameterizedTimerTriggerCause(Collections.singletonMap("o", "v")));
+
+		assertThat(xml, containsString("<parameters>{o=v}</parameters>"));
+		assertThat(xml, not(containsString("description")));
+	}
+
+	@Test
+	public void readsBuildsRecordedWithADescription() {
+		String xml = "<org.jenkinsci.plugins.parameterizedscheduler.ParameterizedTimerTriggerCause>"
+				+ "<description>Started by timer with parameters: {o=v}</description>"
+				+ "</org.jenkinsci.plugins.parameterizedscheduler.ParameterizedTimerTriggerCause>";
+		ParameterizedTimerTriggerCause testObject = (ParameterizedTimerTriggerCause) new XStream2().fromXML(xml);
+
+		assertEquals("Started by timer with parameters: {o=v}", testObject.getShortDescription());
+	}
+
+	@Test
+	public void equality() {
+		ParameterizedTimerTriggerCause cause = new ParameterizedTimerTriggerCause(Collections.singletonMap("a", "b"));
+		ParameterizedTimerTriggerCause same = new ParameterizedTimerTriggerCause(new HashMap<>(Collections.singletonMap("a", "b")));
+		ParameterizedTimerTriggerCause other = new ParameterizedTimerTriggerCause(Collections.singletonMap("a", "c"));
+
+		assertEquals(cause, same);
+		assertEquals(cause.hashCode(), same.hashCode());
+		assertThat(cause, not(equalTo(other)));
+	}
 }
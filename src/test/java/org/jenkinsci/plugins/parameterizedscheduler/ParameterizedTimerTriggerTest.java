@@ -2,6 +2,7 @@ package org.jenkinsci.plugins.parameterizedscheduler;
 
 import org.junit.Test;
 
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertSame;
 
 public class ParameterizedTimerTriggerTest {
@@ -13,4 +14,21 @@ public class ParameterizedTimerTriggerTest {
 
 		assertSame(parameterizedSpecification, testObject.getParameterizedSpecification());
 	}
+
+	@Test
+	public void ctor_does_not_compile() throws Exception {
+		ParameterizedTimerTrigger testObject = new ParameterizedTimerTrigger("H * * * *%foo=bar");
+
+		assertNull(testObject.getCronTabList());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void ctor_validates() throws Exception {
+		new ParameterizedTimerTrigger("* * * *%foo=bar");
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void ctor_validates_parameters() throws Exception {
+		new ParameterizedTimerTrigger("* * * * *%foo=bar;foo=baz");
+	}
 }
@@ -0,0 +1,100 @@
+package org.jenkinsci.plugins.parameterizedscheduler;
+
+import org.junit.Assume;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Runs the same simulated day of schedule churn through both {@link ScheduleIndex} implementations, checks that they
+ * hand out the same lines and reports how long each took.
+ * <p>
+ * Only the smallest run is part of the normal build, the larger ones take a while and assert nothing about timing, so
+ * they only run with {@code -Dorg.jenkinsci.plugins.parameterizedscheduler.ScheduleIndexScaleTest.large=true}.
+ */
+public class ScheduleIndexScaleTest {
+	private static final Logger LOGGER = Logger.getLogger(ScheduleIndexScaleTest.class.getName());
+
+	private static final long START = 19_445L * 24 * 60;
+	private static final int SIMULATED_MINUTES = 24 * 60;
+	private static final long[] PERIODS = {60, 6 * 60, 24 * 60};
+	private static final boolean LARGE = Boolean.getBoolean(ScheduleIndexScaleTest.class.getName() + ".large");
+
+	@Test
+	public void tenThousandLines() {
+		compare(10_000);
+	}
+
+	@Test
+	public void hundredThousandLines() {
+		Assume.assumeTrue(LARGE);
+		compare(100_000);
+	}
+
+	@Test
+	public void millionLines() {
+		Assume.assumeTrue(LARGE);
+		compare(1_000_000);
+	}
+
+	private static void compare(int lines) {
+		long[] heap = simulate(new HeapScheduleIndex(), lines, "heap");
+		long[] wheel = simulate(new TimingWheelScheduleIndex(START), lines, "wheel");
+		assertArrayEquals(heap, wheel);
+	}
+
+	/**
+	 * @return the number of lines due in each simulated minute
+	 */
+	private static long[] simulate(ScheduleIndex index, int count, String name) {
+		Random random = new Random(count);
+		List<ScheduledLine> lines = new ArrayList<>(count);
+		long[] periods = new long[count];
+
+		long started = System.nanoTime();
+		for (int i = 0; i < count; i++) {
+			periods[i] = PERIODS[random.nextInt(PERIODS.length)];
+			ScheduledLine line = new ScheduledLine(null, null);
+			line.minute = START + random.nextInt((int) periods[i]);
+			lines.add(line);
+			index.add(line);
+		}
+		long inserted = System.nanoTime();
+
+		// a config reload of a tenth of the jobs, which replaces their lines
+		for (int i = 0; i < count / 10; i++) {
+			index.remove(lines.get(i));
+			ScheduledLine line = new ScheduledLine(null, null);
+			line.minute = START + random.nextInt((int) periods[i]);
+			lines.set(i, line);
+			index.add(line);
+		}
+		long reloaded = System.nanoTime();
+
+		long[] due = new long[SIMULATED_MINUTES];
+		List<ScheduledLine> polled = new ArrayList<>();
+		for (int m = 0; m < SIMULATED_MINUTES; m++) {
+			polled.clear();
+			index.pollDue(START + m, polled::add);
+			due[m] = polled.size();
+			for (ScheduledLine line : polled) {
+				line.minute += PERIODS[(int) (line.minute % PERIODS.length)];
+				index.add(line);
+			}
+		}
+		long advanced = System.nanoTime();
+
+		assertEquals(count, index.size());
+		LOGGER.info(String.format("%s with %,d lines: insert %d ms, reload %d ms, one day of ticks %d ms", name, count,
+				TimeUnit.NANOSECONDS.toMillis(inserted - started), TimeUnit.NANOSECONDS.toMillis(reloaded - inserted),
+				TimeUnit.NANOSECONDS.toMillis(advanced - reloaded)));
+		return due;
+	}
+}
@@ -0,0 +1,26 @@
+package org.jenkinsci.plugins.parameterizedscheduler;
+
+import net.sf.json.JSONObject;
+import org.junit.Rule;
+import org.junit.Test;
+import org.jvnet.hudson.test.JenkinsRule;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+public class SchedulerMetricsActionTest {
+
+	@Rule
+	public JenkinsRule r = new JenkinsRule();
+
+	@Test
+	public void json() throws Exception {
+		new Cron().doRun();
+		BuildSubmitter.get().drain();
+
+		JSONObject json = r.getJSON("parameterized-scheduler/api/json").getJSONObject();
+		assertThat(json.getJSONObject("tickDuration").getString("unit"), is("microseconds"));
+		assertThat(json.getJSONObject("linesMatched").has("p99"), is(true));
+		assertThat(json.has("rejected"), is(true));
+	}
+}
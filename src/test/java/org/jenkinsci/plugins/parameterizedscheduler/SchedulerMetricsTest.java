@@ -0,0 +1,45 @@
+package org.jenkinsci.plugins.parameterizedscheduler;
+
+import org.junit.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.closeTo;
+import static org.hamcrest.Matchers.is;
+
+public class SchedulerMetricsTest {
+
+	@Test
+	public void emptyHistogram() {
+		SchedulerMetrics.Snapshot snapshot = new SchedulerMetrics.Histogram("lines").snapshot();
+		assertThat(snapshot.getCount(), is(0L));
+		assertThat(snapshot.getMax(), is(0L));
+		assertThat(snapshot.getP99(), is(0L));
+	}
+
+	@Test
+	public void quantilesAreBucketUpperBounds() {
+		SchedulerMetrics.Histogram histogram = new SchedulerMetrics.Histogram("lines");
+		for (int i = 1; i <= 100; i++) {
+			histogram.update(i);
+		}
+		SchedulerMetrics.Snapshot snapshot = histogram.snapshot();
+		assertThat(snapshot.getUnit(), is("lines"));
+		assertThat(snapshot.getCount(), is(100L));
+		assertThat(snapshot.getMean(), closeTo(50.5, 0.001));
+		assertThat(snapshot.getMax(), is(100L));
+		// 50 falls in [32, 64), 95 and 99 in [64, 128) which is capped at the maximum
+		assertThat(snapshot.getP50(), is(63L));
+		assertThat(snapshot.getP95(), is(100L));
+		assertThat(snapshot.getP99(), is(100L));
+	}
+
+	@Test
+	public void mirror() {
+		SchedulerMetrics.Histogram histogram = new SchedulerMetrics.Histogram("lines");
+		long[] mirrored = new long[1];
+		histogram.mirrorTo(v -> mirrored[0] += v);
+		histogram.update(3);
+		histogram.update(-1);
+		assertThat(mirrored[0], is(3L));
+	}
+}
@@ -0,0 +1,47 @@
+package org.jenkinsci.plugins.parameterizedscheduler;
+
+import hudson.scheduler.CronTab;
+import org.junit.Test;
+
+import java.util.Calendar;
+import java.util.Collections;
+import java.util.GregorianCalendar;
+import java.util.TimeZone;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+public class TickSnapshotTest {
+
+	@Test
+	public void fieldsAreSharedPerTimeZone() {
+		TickSnapshot testObject = new TickSnapshot(1_700_000_000_000L, TimeZone.getTimeZone("UTC"));
+
+		assertSame(testObject.fields(null), testObject.fields(TimeZone.getTimeZone("UTC")));
+		assertSame(testObject.fields(TimeZone.getTimeZone("Asia/Tokyo")), testObject.fields(TimeZone.getTimeZone("Asia/Tokyo")));
+
+		// 2023-11-14T22:13:20Z
+		CalendarFields utc = testObject.fields(null);
+		assertEquals(13, utc.minute);
+		assertEquals(22, utc.hour);
+		assertEquals(14, utc.dayOfMonth);
+		assertEquals(11, utc.month);
+		assertEquals(Calendar.TUESDAY - 1, utc.dayOfWeek);
+		CalendarFields tokyo = testObject.fields(TimeZone.getTimeZone("Asia/Tokyo"));
+		assertEquals(7, tokyo.hour);
+		assertEquals(15, tokyo.dayOfMonth);
+	}
+
+	@Test
+	public void checkMatchesCalendarCheck() {
+		Calendar calendar = new GregorianCalendar(TimeZone.getTimeZone("America/Chicago"));
+		calendar.setTimeInMillis(1_700_000_000_000L);
+		TickSnapshot snapshot = TickSnapshot.of(calendar);
+		for (String timezone : new String[] {null, "Europe/Berlin"}) {
+			for (String spec : new String[] {"13 16 * * *", "13 23 * * *", "13 22 * * *"}) {
+				ParameterizedCronTab cronTab = new ParameterizedCronTab(new CronTab(spec, 1, null, timezone), Collections.emptyMap());
+				assertEquals(spec + " in " + timezone, cronTab.check(calendar), cronTab.check(snapshot));
+			}
+		}
+	}
+}
@@ -0,0 +1,77 @@
+package org.jenkinsci.plugins.parameterizedscheduler;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.is;
+
+public class TimingWheelScheduleIndexTest {
+
+	private static final long START = 19_445L * 24 * 60; // a day boundary in 2023
+
+	private static ScheduledLine line(long minute) {
+		ScheduledLine line = new ScheduledLine(null, null);
+		line.minute = minute;
+		return line;
+	}
+
+	private static List<ScheduledLine> poll(ScheduleIndex index, long minute) {
+		List<ScheduledLine> due = new ArrayList<>();
+		index.pollDue(minute, due::add);
+		return due;
+	}
+
+	@Test
+	public void cascadesThroughAllWheels() {
+		TimingWheelScheduleIndex testObject = new TimingWheelScheduleIndex(START);
+		ScheduledLine inMinute = line(START + 5);
+		ScheduledLine inHour = line(START + 3 * 60 + 7);
+		ScheduledLine inDays = line(START + 3 * 24 * 60 + 11);
+		ScheduledLine inYears = line(START + 1500L * 24 * 60);
+		testObject.add(inMinute);
+		testObject.add(inHour);
+		testObject.add(inDays);
+		testObject.add(inYears);
+		assertThat(testObject.size(), is(4));
+
+		assertThat(poll(testObject, START + 4), is(empty()));
+		assertThat(poll(testObject, START + 5), contains(inMinute));
+		assertThat(poll(testObject, START + 3 * 60 + 6), is(empty()));
+		assertThat(poll(testObject, START + 3 * 60 + 7), contains(inHour));
+		assertThat(poll(testObject, START + 3 * 24 * 60 + 10), is(empty()));
+		assertThat(poll(testObject, START + 3 * 24 * 60 + 11), contains(inDays));
+		assertThat(poll(testObject, START + 1500L * 24 * 60), contains(inYears));
+		assertThat(testObject.size(), is(0));
+	}
+
+	@Test
+	public void pastLinesAreDueImmediately() {
+		TimingWheelScheduleIndex testObject = new TimingWheelScheduleIndex(START);
+		ScheduledLine past = line(START - 10);
+		ScheduledLine now = line(START);
+		testObject.add(past);
+		testObject.add(now);
+
+		assertThat(poll(testObject, START), containsInAnyOrder(past, now));
+	}
+
+	@Test
+	public void removedLinesAreNotPolled() {
+		TimingWheelScheduleIndex testObject = new TimingWheelScheduleIndex(START);
+		ScheduledLine kept = line(START + 90);
+		ScheduledLine removed = line(START + 90);
+		testObject.add(kept);
+		testObject.add(removed);
+		testObject.remove(removed);
+		testObject.remove(removed);
+
+		assertThat(testObject.size(), is(1));
+		assertThat(poll(testObject, START + 90), contains(kept));
+	}
+}
@@ -0,0 +1,124 @@
+package org.jenkinsci.plugins.parameterizedscheduler;
+
+import hudson.model.FreeStyleProject;
+import hudson.model.ParametersAction;
+import hudson.model.ParametersDefinitionProperty;
+import hudson.model.StringParameterDefinition;
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+import org.jvnet.hudson.test.JenkinsRule;
+import org.jvnet.hudson.test.LoggerRule;
+
+import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.notNullValue;
+
+public class TriggerEvaluatorTest {
+
+	@Rule
+	public JenkinsRule r = new JenkinsRule();
+	@Rule
+	public LoggerRule logging = new LoggerRule();
+
+	private final int threshold = TriggerEvaluator.THRESHOLD;
+	private final MissedMinutePolicy policy = TriggerEvaluator.MISSED_MINUTE_POLICY;
+
+	@After
+	public void reset() {
+		TriggerEvaluator.THRESHOLD = threshold;
+		TriggerEvaluator.MISSED_MINUTE_POLICY = policy;
+	}
+
+	@Test
+	public void parallelEvaluationFiresEveryJob() throws Exception {
+		TriggerEvaluator.THRESHOLD = 1;
+		List<FreeStyleProject> projects = new ArrayList<>();
+		for (int i = 0; i < 10; i++) {
+			FreeStyleProject p = r.createFreeStyleProject();
+			p.addProperty(new ParametersDefinitionProperty(new StringParameterDefinition("foo", "lol")));
+			ParameterizedTimerTrigger t = new ParameterizedTimerTrigger("* * * * *%foo=bar" + i);
+			t.start(p, true);
+			p.addTrigger(t);
+			projects.add(p);
+		}
+
+		new Cron().doRun();
+		BuildSubmitter.get().drain();
+		r.waitUntilNoActivity();
+
+		for (int i = 0; i < projects.size(); i++) {
+			FreeStyleProject p = projects.get(i);
+			assertThat(p.getLastCompletedBuild(), is(notNullValue()));
+			assertThat(p.getLastCompletedBuild().getAction(ParametersAction.class).getParameter("foo").getValue(), is("bar" + i));
+		}
+	}
+
+	@Test
+	public void missedMinutesAreCaughtUpPerPolicy() throws Exception {
+		FreeStyleProject p = r.createFreeStyleProject();
+		p.addProperty(new ParametersDefinitionProperty(new StringParameterDefinition("foo", "lol")));
+		ParameterizedTimerTrigger t = new ParameterizedTimerTrigger("* * * * *%foo=bar");
+		t.start(p, true);
+		p.addTrigger(t);
+		TickSnapshot snapshot = TickSnapshot.now();
+		long minute = snapshot.getMinute();
+
+		TriggerEvaluator.MISSED_MINUTE_POLICY = MissedMinutePolicy.FIRE_ALL;
+		assertThat(TriggerEvaluator.evaluate(t, missedLine(t, minute - 3), snapshot, minute - 4), hasSize(4));
+		TriggerEvaluator.MISSED_MINUTE_POLICY = MissedMinutePolicy.FIRE_LATEST;
+		assertThat(TriggerEvaluator.evaluate(t, missedLine(t, minute - 3), snapshot, minute - 4), hasSize(2));
+		TriggerEvaluator.MISSED_MINUTE_POLICY = MissedMinutePolicy.SKIP;
+		assertThat(TriggerEvaluator.evaluate(t, missedLine(t, minute - 3), snapshot, minute - 4), hasSize(1));
+	}
+
+	@Test
+	public void fireLatestNamesTheLatestMissedMinute() throws Exception {
+		FreeStyleProject p = r.createFreeStyleProject();
+		p.addProperty(new ParametersDefinitionProperty(new StringParameterDefinition("foo", "lol")));
+		ParameterizedTimerTrigger t = new ParameterizedTimerTrigger("* * * * *%foo=bar");
+		t.start(p, true);
+		p.addTrigger(t);
+		TickSnapshot snapshot = TickSnapshot.now();
+		long minute = snapshot.getMinute();
+		logging.record(TriggerEvaluator.class, Level.INFO).capture(10);
+
+		TriggerEvaluator.MISSED_MINUTE_POLICY = MissedMinutePolicy.FIRE_LATEST;
+		assertThat(TriggerEvaluator.evaluate(t, missedLine(t, minute - 3), snapshot, minute - 4), hasSize(2));
+		String latest = MessageFormat.format("{0}", new Date(TimeUnit.MINUTES.toMillis(minute - 1)));
+		assertThat(logging.getMessages(), hasItem(containsString("missed 3 occurrence(s), the latest at " + latest + ",")));
+	}
+
+	@Test
+	public void lateRegisteredLineIsNotCaughtUp() throws Exception {
+		FreeStyleProject p = r.createFreeStyleProject();
+		p.addProperty(new ParametersDefinitionProperty(new StringParameterDefinition("foo", "lol")));
+		ParameterizedTimerTrigger t = new ParameterizedTimerTrigger("* * * * *%foo=bar");
+		t.start(p, true);
+		p.addTrigger(t);
+		TickSnapshot snapshot = TickSnapshot.now();
+		long minute = snapshot.getMinute();
+
+		TriggerEvaluator.MISSED_MINUTE_POLICY = MissedMinutePolicy.FIRE_ALL;
+		List<ScheduledLine> lines = missedLine(t, minute - 1);
+		assertThat(TriggerEvaluator.evaluate(t, lines, snapshot, minute - 1), hasSize(1));
+		assertThat(lines.get(0).minute, is(minute + 1));
+	}
+
+	private static List<ScheduledLine> missedLine(ParameterizedTimerTrigger t, long minute) {
+		ScheduledLine line = new ScheduledLine(t, t.getCronTabList().getCronTabs().get(0));
+		line.minute = minute;
+		return Collections.singletonList(line);
+	}
+}
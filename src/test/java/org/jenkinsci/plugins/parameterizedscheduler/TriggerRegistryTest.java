@@ -0,0 +1,91 @@
+package org.jenkinsci.plugins.parameterizedscheduler;
+
+import hudson.model.FreeStyleProject;
+import hudson.model.ParametersDefinitionProperty;
+import hudson.model.StringParameterDefinition;
+import org.jenkinsci.plugins.workflow.job.WorkflowJob;
+import org.junit.Rule;
+import org.junit.Test;
+import org.jvnet.hudson.test.JenkinsRule;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.is;
+
+public class TriggerRegistryTest {
+
+	@Rule
+	public JenkinsRule r = new JenkinsRule();
+
+	@Test
+	public void startAndStop() throws Exception {
+		FreeStyleProject p = r.createFreeStyleProject();
+		p.addProperty(new ParametersDefinitionProperty(new StringParameterDefinition("foo", "lol")));
+		ParameterizedTimerTrigger t = new ParameterizedTimerTrigger("* * * * *%foo=bar");
+		t.start(p, true);
+		p.addTrigger(t);
+
+		TriggerRegistry registry = TriggerRegistry.get();
+		assertThat(registry.getTriggers(), contains(t));
+		assertThat(t.isLive(), is(true));
+
+		t.stop();
+		assertThat(registry.getTriggers(), is(empty()));
+	}
+
+	@Test
+	public void deletedJobIsForgotten() throws Exception {
+		WorkflowJob p = r.createProject(WorkflowJob.class);
+		p.addProperty(new ParametersDefinitionProperty(new StringParameterDefinition("foo", "lol")));
+		ParameterizedTimerTrigger t = new ParameterizedTimerTrigger("* * * * *%foo=bar");
+		t.start(p, true);
+		p.addTrigger(t);
+		assertThat(TriggerRegistry.get().getTriggers(), contains(t));
+
+		p.delete();
+		assertThat(TriggerRegistry.get().getTriggers(), is(empty()));
+	}
+
+	@Test
+	public void unattachedTriggerIsNotLive() throws Exception {
+		FreeStyleProject p = r.createFreeStyleProject();
+		p.addProperty(new ParametersDefinitionProperty(new StringParameterDefinition("foo", "lol")));
+		ParameterizedTimerTrigger t = new ParameterizedTimerTrigger("* * * * *%foo=bar");
+		t.start(p, true);
+
+		assertThat(t.isLive(), is(false));
+	}
+
+	@Test
+	public void startedTriggerIsCompiledInTheBackgroundOrOnDemand() throws Exception {
+		FreeStyleProject p = r.createFreeStyleProject();
+		p.addProperty(new ParametersDefinitionProperty(new StringParameterDefinition("foo", "lol")));
+		ParameterizedTimerTrigger t = new ParameterizedTimerTrigger("* * * * *%foo=bar");
+		t.start(p, true);
+		p.addTrigger(t);
+
+		TriggerRegistry registry = TriggerRegistry.get();
+		registry.compilePending();
+		assertThat(registry.getPendingCount(), is(0));
+		Map<ParameterizedTimerTrigger, List<ScheduledLine>> due = registry.takeDue(TimeUnit.MILLISECONDS.toMinutes(System.currentTimeMillis()));
+		assertThat(due.keySet(), contains(t));
+	}
+
+	@Test
+	public void stoppedTriggerIsNotRegisteredLate() throws Exception {
+		FreeStyleProject p = r.createFreeStyleProject();
+		p.addProperty(new ParametersDefinitionProperty(new StringParameterDefinition("foo", "lol")));
+		ParameterizedTimerTrigger t = new ParameterizedTimerTrigger("* * * * *%foo=bar");
+		t.start(p, true);
+		t.stop();
+
+		TriggerRegistry registry = TriggerRegistry.get();
+		assertThat(registry.compilePending(), is(0));
+		assertThat(registry.getTriggers(), is(empty()));
+	}
+}